@@ -0,0 +1,121 @@
+package inpt.aseds.userservice.application.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over strings. Sized from the expected number of
+ * insertions and the target false positive rate; adds and lookups are
+ * lock-free and may run concurrently.
+ *
+ * Probe positions use double hashing (h + i * h2) over a single 64-bit hash
+ * of the string's chars, so a lookup hashes its key once.
+ */
+public class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicLong insertions = new AtomicLong();
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1");
+        }
+
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (LN2 * LN2));
+        int wordCount = Math.toIntExact(Math.max(1, (bits + 63) >>> 6));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * LN2));
+    }
+
+    public void put(String value) {
+        long hash = hash(value);
+        long h2 = (hash >>> 32) | 1;
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(hash + i * h2);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0) {
+                long witness = words.compareAndExchange(word, current, current | mask);
+                if (witness == current) {
+                    break;
+                }
+                current = witness;
+            }
+        }
+        insertions.incrementAndGet();
+    }
+
+    /**
+     * Returns false only if the value was never added.
+     */
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        long h2 = (hash >>> 32) | 1;
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(hash + i * h2);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Size of the bit array in bytes.
+     */
+    public long memoryBytes() {
+        return bitCount >>> 3;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Number of adds so far, counting repeated values each time.
+     */
+    public long insertions() {
+        return insertions.get();
+    }
+
+    /**
+     * False positive probability for the current number of insertions,
+     * (1 - e^(-kn/m))^k.
+     */
+    public double expectedFalsePositiveRate() {
+        double fill = 1 - Math.exp(-(double) hashCount * insertions.get() / bitCount);
+        return Math.pow(fill, hashCount);
+    }
+
+    private long index(long combined) {
+        // Mask the sign bit rather than negating so that every value maps into range
+        return (combined & Long.MAX_VALUE) % bitCount;
+    }
+
+    /**
+     * 64-bit FNV-1a over the string's chars, finished with the MurmurHash3
+     * mixer so that both halves are usable as independent hashes.
+     */
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
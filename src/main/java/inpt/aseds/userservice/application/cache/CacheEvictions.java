@@ -0,0 +1,28 @@
+package inpt.aseds.userservice.application.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs cache evictions immediately and, inside a transaction, once more after
+ * commit so that readers which reloaded the old row before the commit do not
+ * keep it cached.
+ */
+final class CacheEvictions {
+
+    private CacheEvictions() {
+    }
+
+    static void nowAndAfterCommit(Runnable eviction) {
+        eviction.run();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package inpt.aseds.userservice.application.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Loads cache misses on the calling thread, outside the cache's map lock.
+ *
+ * Cache.get(key, loader) runs the loader inside a ConcurrentHashMap compute,
+ * i.e. while holding a synchronized bin lock, which pins a virtual thread to
+ * its carrier for the whole query. Here the compute only installs an
+ * incomplete future; the first caller then runs the loader and completes it,
+ * and concurrent callers wait on the future, which parks rather than pins.
+ * The cache drops futures completed with null or exceptionally, and an
+ * invalidation while the load runs removes the future, so a value read
+ * before a concurrent update is not cached.
+ */
+final class CacheLoads {
+
+    private CacheLoads() {
+    }
+
+    static <K, V> V get(AsyncCache<K, V> cache, K key, Function<K, V> loader) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> future = cache.get(key, (k, executor) -> mine);
+        if (future == mine) {
+            try {
+                mine.complete(loader.apply(key));
+            } catch (RuntimeException | Error e) {
+                mine.completeExceptionally(e);
+                throw e;
+            }
+        }
+        return join(future);
+    }
+
+    /**
+     * Returns the value of a completed load, or null when absent or still loading.
+     */
+    static <V> V getNow(CompletableFuture<V> future) {
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            return null;
+        }
+        return future.join();
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package inpt.aseds.userservice.application.cache;
+
+import inpt.aseds.userservice.application.mappers.ChannelMappers;
+import inpt.aseds.userservice.domain.repository.ChannelRepository;
+import inpt.aseds.userservice.infrastructure.grpc.Channel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory index of the channels that are currently live, ordered by ID, so
+ * that listing them costs O(live) and never scans the channels table.
+ *
+ * Local writes are applied after they commit. The index is reloaded from the
+ * partial index on channels.is_live every app.user.channels.live-resync-interval
+ * to pick up writes made by other instances; writes that land while a reload
+ * is running are replayed over its result so they are not lost. Until the
+ * first load completes the index is empty.
+ *
+ * Exported as channel.live.count.
+ */
+@Component
+public class LiveChannelIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveChannelIndex.class);
+
+    private final ChannelRepository channelRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile ConcurrentSkipListMap<String, Channel> live = new ConcurrentSkipListMap<>();
+    // Writes applied while a resync is loading, keyed by ID; guarded by this
+    private Map<String, Channel> pending;
+
+    public LiveChannelIndex(ChannelRepository channelRepository,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.channelRepository = channelRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+
+        Gauge.builder("channel.live.count", this, LiveChannelIndex::size)
+                .description("Channels currently live according to the in-memory index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns up to {@code limit} live channels with an ID greater than
+     * {@code afterId}, or from the start when it is null.
+     */
+    public List<Channel> page(String afterId, int limit) {
+        ConcurrentSkipListMap<String, Channel> snapshot = live;
+        Map<String, Channel> view = afterId == null ? snapshot : snapshot.tailMap(afterId, false);
+
+        List<Channel> channels = new ArrayList<>(Math.min(limit, 64));
+        for (Channel channel : view.values()) {
+            if (channels.size() == limit) {
+                break;
+            }
+            channels.add(channel);
+        }
+        return channels;
+    }
+
+    public int size() {
+        return live.size();
+    }
+
+    /**
+     * Records a committed channel, adding it when live and removing it otherwise.
+     */
+    public synchronized void update(Channel channel) {
+        apply(live, channel);
+        if (pending != null) {
+            pending.put(channel.getId(), channel);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.user.channels.live-resync-interval:30s}")
+    public void resync() {
+        synchronized (this) {
+            pending = new HashMap<>();
+        }
+        try {
+            List<Channel> loaded = transactionTemplate.execute(status -> {
+                List<Channel> channels = new ArrayList<>();
+                for (inpt.aseds.userservice.domain.model.Channel channel : channelRepository.findLiveChannels()) {
+                    channels.add(ChannelMappers.toGrpcChannel(channel));
+                }
+                return channels;
+            });
+
+            ConcurrentSkipListMap<String, Channel> next = new ConcurrentSkipListMap<>();
+            for (Channel channel : loaded) {
+                next.put(channel.getId(), channel);
+            }
+            synchronized (this) {
+                for (Channel channel : pending.values()) {
+                    apply(next, channel);
+                }
+                live = next;
+            }
+            log.debug("Reloaded live channel index: {} live channels", next.size());
+        } catch (Exception e) {
+            log.warn("Failed to reload live channel index, keeping the previous one: {}", e.getMessage());
+        } finally {
+            synchronized (this) {
+                pending = null;
+            }
+        }
+    }
+
+    private static void apply(Map<String, Channel> index, Channel channel) {
+        if (channel.getIsLive()) {
+            index.put(channel.getId(), channel);
+        } else {
+            index.remove(channel.getId());
+        }
+    }
+}
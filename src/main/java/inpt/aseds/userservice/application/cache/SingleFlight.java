@@ -0,0 +1,80 @@
+package inpt.aseds.userservice.application.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the loader,
+ * callers arriving while it is in flight wait for and share its result or
+ * exception. Nothing is retained once the load completes, so this complements
+ * rather than replaces caching.
+ *
+ * Followers find the in-flight load with a lock-free read; only the leader
+ * touches the map's bin lock, so a hot key does not serialize its readers.
+ * Exported as user.lookup.executed and user.lookup.coalesced, tagged by key type.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter coalesced;
+
+    public SingleFlight(String keyType, MeterRegistry meterRegistry) {
+        this.executed = Counter.builder("user.lookup.executed")
+                .description("Lookups that ran their own query")
+                .tag("key", keyType)
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("user.lookup.coalesced")
+                .description("Lookups that shared the result of an identical in-flight query")
+                .tag("key", keyType)
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> existing = inFlight.get(key);
+        if (existing == null) {
+            CompletableFuture<V> mine = new CompletableFuture<>();
+            existing = inFlight.putIfAbsent(key, mine);
+            if (existing == null) {
+                return lead(key, mine, loader);
+            }
+        }
+
+        coalesced.increment();
+        return follow(existing);
+    }
+
+    private V lead(K key, CompletableFuture<V> mine, Supplier<V> loader) {
+        executed.increment();
+        try {
+            V value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private V follow(CompletableFuture<V> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package inpt.aseds.userservice.application.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import inpt.aseds.userservice.application.config.UserServiceProperties;
+import inpt.aseds.userservice.domain.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache for user lookups by ID and by username.
+ * Configured through app.user.cache (enabled, ttl, max-size) and exported
+ * as cache.* meters under the names users.by-id and users.by-username.
+ *
+ * The username cache only maps a username to an ID; the user itself always
+ * comes from the ID cache and is only returned when its username still
+ * matches, so a renamed user can never be served under its old username.
+ * Cached users are shared detached entities and must not be modified.
+ *
+ * Misses are loaded outside the cache's map lock (see {@link CacheLoads}), so
+ * a query never pins a virtual thread to its carrier.
+ */
+@Component
+public class UserCache {
+
+    private final boolean enabled;
+    private final AsyncCache<Long, User> usersById;
+    private final Cache<String, Long> idsByUsername;
+
+    public UserCache(UserServiceProperties properties, MeterRegistry meterRegistry) {
+        UserServiceProperties.Cache config = properties.getCache();
+        this.enabled = config.isEnabled();
+        this.usersById = Caffeine.newBuilder()
+                .maximumSize(config.getMaxSize())
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .buildAsync();
+        this.idsByUsername = Caffeine.newBuilder()
+                .maximumSize(config.getMaxSize())
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "users.by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByUsername, "users.by-username");
+    }
+
+    /**
+     * Returns the cached user with the given ID, loading it on a miss.
+     * The loader may return null, in which case nothing is cached.
+     */
+    public User getById(Long id, Function<Long, User> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        return CacheLoads.get(usersById, id, loader);
+    }
+
+    /**
+     * Returns the cached user with the given username, loading it on a miss.
+     * The loader may return null, in which case nothing is cached.
+     */
+    public User getByUsername(String username, Function<String, User> loader) {
+        if (!enabled) {
+            return loader.apply(username);
+        }
+
+        Long id = idsByUsername.getIfPresent(username);
+        if (id != null) {
+            User cached = CacheLoads.getNow(usersById.getIfPresent(id));
+            if (cached != null && username.equals(cached.getUsername())) {
+                return cached;
+            }
+        }
+
+        User user = loader.apply(username);
+        if (user != null) {
+            usersById.put(user.getId(), CompletableFuture.completedFuture(user));
+            idsByUsername.put(user.getUsername(), user.getId());
+        }
+        return user;
+    }
+
+    /**
+     * Evicts a user and any of its usernames, again after commit when called
+     * inside a transaction.
+     */
+    public void evict(Long id, String... usernames) {
+        if (!enabled) {
+            return;
+        }
+
+        CacheEvictions.nowAndAfterCommit(() -> {
+            usersById.synchronous().invalidate(id);
+            for (String username : usernames) {
+                if (username != null) {
+                    idsByUsername.invalidate(username);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,312 @@
+package inpt.aseds.userservice.application.cache;
+
+import inpt.aseds.userservice.application.config.UserServiceProperties;
+import inpt.aseds.userservice.domain.model.User;
+import inpt.aseds.userservice.domain.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filters over every username and email in user_table, so that checks
+ * for names that are not taken can be answered without a query.
+ *
+ * The filters are built by streaming user_table and rebuilt every
+ * app.user.existence-filter.rebuild-interval, which also drops names that are
+ * no longer in use. Local writes are added as they happen, both before and
+ * after commit so that neither a concurrent check nor a running rebuild can
+ * miss them. Rows written by other instances or outside this service are
+ * picked up every refresh-interval by reading the rows whose updated_at is
+ * past a watermark; the watermark trails the newest row seen by
+ * refresh-overlap, so that transactions committing late and writers with a
+ * skewed clock are still caught.
+ *
+ * A negative answer is only given while the last successful refresh started
+ * less than max-staleness ago; a filter that could not be refreshed, or has
+ * not been built yet, reports every value as possibly present.
+ *
+ * Exported as user.existence.filter.memory and user.existence.filter.expected.fpp
+ * per filter, plus user.existence.filter.checks by result (negative, maybe or
+ * stale) and user.existence.filter.false.positives (maybe answers the database
+ * refuted).
+ */
+@Component
+public class UserExistenceFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(UserExistenceFilter.class);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final UserServiceProperties.ExistenceFilter config;
+
+    private final Filter usernames;
+    private final Filter emails;
+
+    // updated_at from which the next refresh reads; null until the first build
+    private volatile Date refreshSince;
+    // System.nanoTime() at the start of the last successful build or refresh
+    private volatile long syncedAt;
+
+    public UserExistenceFilter(UserRepository userRepository,
+                               PlatformTransactionManager transactionManager,
+                               UserServiceProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.config = properties.getExistenceFilter();
+        // Read-write so that reads go to the primary: a lagging replica would hide recent rows
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.usernames = new Filter("username", meterRegistry);
+        this.emails = new Filter("email", meterRegistry);
+    }
+
+    /**
+     * Returns false only if no user has this username.
+     */
+    public boolean mightContainUsername(String username) {
+        return usernames.mightContain(username);
+    }
+
+    /**
+     * Returns false only if no user has this email.
+     */
+    public boolean mightContainEmail(String email) {
+        return emails.mightContain(email);
+    }
+
+    /**
+     * Records a maybe answer that the database then refuted.
+     */
+    public void recordUsernameFalsePositive() {
+        usernames.falsePositives.increment();
+    }
+
+    public void recordEmailFalsePositive() {
+        emails.falsePositives.increment();
+    }
+
+    /**
+     * Adds a user's username and email, again after the surrounding
+     * transaction commits if there is one.
+     */
+    public void add(String username, String email) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        addNow(username, email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addNow(username, email);
+                }
+            });
+        }
+    }
+
+    /**
+     * Adds the usernames and emails of several users, again after the
+     * surrounding transaction commits if there is one.
+     */
+    public void addAll(Collection<User> users) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        users.forEach(user -> addNow(user.getUsername(), user.getEmail()));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    users.forEach(user -> addNow(user.getUsername(), user.getEmail()));
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.user.existence-filter.rebuild-interval:10m}")
+    public void rebuild() {
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        Date startedAt = new Date();
+        BloomFilter nextUsernames = newFilter();
+        BloomFilter nextEmails = newFilter();
+        usernames.building = nextUsernames;
+        emails.building = nextEmails;
+        try {
+            Long rows = transactionTemplate.execute(status -> {
+                long count = 0;
+                try (Stream<Object[]> stream = userRepository.streamUsernamesAndEmails()) {
+                    for (Object[] row : (Iterable<Object[]>) stream::iterator) {
+                        if (row[0] != null) {
+                            nextUsernames.put((String) row[0]);
+                        }
+                        if (row[1] != null) {
+                            nextEmails.put((String) row[1]);
+                        }
+                        count++;
+                    }
+                }
+                return count;
+            });
+            usernames.current = nextUsernames;
+            emails.current = nextEmails;
+            if (refreshSince == null) {
+                refreshSince = new Date(startedAt.getTime() - config.getRefreshOverlap().toMillis());
+            }
+            markSynced(started);
+            log.info("Built user existence filters from {} users in {} ms ({} bytes each, {} hashes)",
+                    rows, (System.nanoTime() - started) / 1_000_000,
+                    nextUsernames.memoryBytes(), nextUsernames.hashCount());
+        } catch (Exception e) {
+            log.warn("Failed to build user existence filters, keeping the previous ones: {}", e.getMessage());
+        } finally {
+            usernames.building = null;
+            emails.building = null;
+        }
+    }
+
+    /**
+     * Adds the usernames and emails of rows updated since the watermark,
+     * which catches writes made by other instances and outside this service.
+     */
+    @Scheduled(fixedDelayString = "${app.user.existence-filter.refresh-interval:2s}")
+    public void refresh() {
+        Date since = refreshSince;
+        if (!config.isEnabled() || since == null) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        try {
+            Date newest = transactionTemplate.execute(status -> {
+                Date max = null;
+                try (Stream<Object[]> stream = userRepository.streamUsernamesAndEmailsUpdatedSince(since)) {
+                    for (Object[] row : (Iterable<Object[]>) stream::iterator) {
+                        addNow((String) row[0], (String) row[1]);
+                        Date updatedAt = (Date) row[2];
+                        if (max == null || updatedAt.after(max)) {
+                            max = updatedAt;
+                        }
+                    }
+                }
+                return max;
+            });
+            if (newest != null) {
+                Date next = new Date(newest.getTime() - config.getRefreshOverlap().toMillis());
+                if (next.after(since)) {
+                    refreshSince = next;
+                }
+            }
+            markSynced(started);
+        } catch (Exception e) {
+            log.warn("Failed to refresh user existence filters, answering from the database until the next "
+                    + "refresh succeeds: {}", e.getMessage());
+        }
+    }
+
+    private void markSynced(long started) {
+        // Rebuilds and refreshes run concurrently; keep the later start
+        if (syncedAt == 0 || started - syncedAt > 0) {
+            syncedAt = started;
+        }
+    }
+
+    private boolean isFresh() {
+        return syncedAt != 0 && System.nanoTime() - syncedAt < config.getMaxStaleness().toNanos();
+    }
+
+    private void addNow(String username, String email) {
+        if (username != null) {
+            usernames.put(username);
+        }
+        if (email != null) {
+            emails.put(email);
+        }
+    }
+
+    private BloomFilter newFilter() {
+        return new BloomFilter(config.getExpectedInsertions(), config.getFalsePositiveRate());
+    }
+
+    private final class Filter {
+        volatile BloomFilter current;
+        volatile BloomFilter building;
+
+        final Counter negative;
+        final Counter maybe;
+        final Counter stale;
+        final Counter falsePositives;
+
+        Filter(String name, MeterRegistry meterRegistry) {
+            Gauge.builder("user.existence.filter.memory", this,
+                            f -> f.current != null ? f.current.memoryBytes() : 0)
+                    .description("Size of the existence filter's bit array")
+                    .baseUnit("bytes")
+                    .tag("filter", name)
+                    .register(meterRegistry);
+            Gauge.builder("user.existence.filter.expected.fpp", this,
+                            f -> f.current != null ? f.current.expectedFalsePositiveRate() : 0)
+                    .description("Expected false positive rate at the filter's current fill")
+                    .tag("filter", name)
+                    .register(meterRegistry);
+            this.negative = checks(name, "negative", meterRegistry);
+            this.maybe = checks(name, "maybe", meterRegistry);
+            this.stale = checks(name, "stale", meterRegistry);
+            this.falsePositives = Counter.builder("user.existence.filter.false.positives")
+                    .description("Maybe answers for values the database did not have")
+                    .tag("filter", name)
+                    .register(meterRegistry);
+        }
+
+        boolean mightContain(String value) {
+            BloomFilter filter = current;
+            if (filter == null || !config.isEnabled()) {
+                return true;
+            }
+            if (!isFresh()) {
+                stale.increment();
+                return true;
+            }
+            if (filter.mightContain(value)) {
+                maybe.increment();
+                return true;
+            }
+            negative.increment();
+            return false;
+        }
+
+        void put(String value) {
+            // Read building first: rebuild() publishes current before clearing building
+            BloomFilter next = building;
+            BloomFilter filter = current;
+            if (next != null) {
+                next.put(value);
+            }
+            if (filter != null && filter != next) {
+                filter.put(value);
+            }
+        }
+
+        private static Counter checks(String name, String result, MeterRegistry meterRegistry) {
+            return Counter.builder("user.existence.filter.checks")
+                    .description("Existence checks answered by the filter")
+                    .tag("filter", name)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+}
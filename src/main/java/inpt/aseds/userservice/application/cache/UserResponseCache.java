@@ -0,0 +1,59 @@
+package inpt.aseds.userservice.application.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import inpt.aseds.userservice.application.config.UserServiceProperties;
+import inpt.aseds.userservice.infrastructure.grpc.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * Cache of fully built gRPC User messages keyed by user ID.
+ * Protobuf messages are immutable and memoize their serialized size, so a hit
+ * skips the entity load, the mapping and the size computation on the wire.
+ * Shares the app.user.cache settings with {@link UserCache} and is exported
+ * as cache.* meters under the name users.responses. Misses are built outside
+ * the cache's map lock (see {@link CacheLoads}).
+ */
+@Component
+public class UserResponseCache {
+
+    private final boolean enabled;
+    private final AsyncCache<Long, User> responsesById;
+
+    public UserResponseCache(UserServiceProperties properties, MeterRegistry meterRegistry) {
+        UserServiceProperties.Cache config = properties.getCache();
+        this.enabled = config.isEnabled();
+        this.responsesById = Caffeine.newBuilder()
+                .maximumSize(config.getMaxSize())
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, responsesById, "users.responses");
+    }
+
+    /**
+     * Returns the cached message for the given user ID, building it on a miss.
+     */
+    public User get(Long id, Function<Long, User> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        return CacheLoads.get(responsesById, id, loader);
+    }
+
+    /**
+     * Evicts the message of a user, again after commit when called inside a transaction.
+     */
+    public void evict(Long id) {
+        if (!enabled) {
+            return;
+        }
+
+        CacheEvictions.nowAndAfterCommit(() -> responsesById.synchronous().invalidate(id));
+    }
+}
@@ -3,6 +3,12 @@ package inpt.aseds.userservice.application.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Configuration properties for the user service application.
  * Maps values from application.yaml under 'app.user' prefix.
@@ -14,6 +20,15 @@ public class UserServiceProperties {
     private final Validation validation = new Validation();
     private final Pagination pagination = new Pagination();
     private final Cache cache = new Cache();
+    private final Batch batch = new Batch();
+    private final Export export = new Export();
+    private final Import importConfig = new Import();
+    private final Outbox outbox = new Outbox();
+    private final Grpc grpc = new Grpc();
+    private final ExistenceFilter existenceFilter = new ExistenceFilter();
+    private final Channels channels = new Channels();
+    private final Security security = new Security();
+    private final Replicas replicas = new Replicas();
     
     public Validation getValidation() {
         return validation;
@@ -27,6 +42,42 @@ public class UserServiceProperties {
         return cache;
     }
     
+    public Batch getBatch() {
+        return batch;
+    }
+    
+    public Export getExport() {
+        return export;
+    }
+    
+    public Import getImport() {
+        return importConfig;
+    }
+    
+    public Outbox getOutbox() {
+        return outbox;
+    }
+    
+    public Grpc getGrpc() {
+        return grpc;
+    }
+    
+    public ExistenceFilter getExistenceFilter() {
+        return existenceFilter;
+    }
+    
+    public Channels getChannels() {
+        return channels;
+    }
+    
+    public Security getSecurity() {
+        return security;
+    }
+    
+    public Replicas getReplicas() {
+        return replicas;
+    }
+    
     public static class Validation {
         private final Username username = new Username();
         private final Email email = new Email();
@@ -95,7 +146,7 @@ public class UserServiceProperties {
         }
         
         public static class Search {
-            private int minQueryLength = 2;
+            private int minQueryLength = 3;
             private int maxResults = 100;
             
             public int getMinQueryLength() {
@@ -139,7 +190,8 @@ public class UserServiceProperties {
     
     public static class Cache {
         private boolean enabled = true;
-        private String ttl = "300s";
+        private Duration ttl = Duration.ofSeconds(300);
+        private long maxSize = 100_000;
         
         public boolean isEnabled() {
             return enabled;
@@ -149,12 +201,585 @@ public class UserServiceProperties {
             this.enabled = enabled;
         }
         
-        public String getTtl() {
+        public Duration getTtl() {
             return ttl;
         }
         
-        public void setTtl(String ttl) {
+        public void setTtl(Duration ttl) {
             this.ttl = ttl;
         }
+        
+        public long getMaxSize() {
+            return maxSize;
+        }
+        
+        public void setMaxSize(long maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+    
+    public static class Batch {
+        private int maxSize = 500;
+        private int chunkSize = 100;
+        
+        public int getMaxSize() {
+            return maxSize;
+        }
+        
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+        
+        public int getChunkSize() {
+            return chunkSize;
+        }
+        
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+    
+    public static class Import {
+        private int batchSize = 1000;
+        private int maxConcurrentImports = 2;
+        private int maxReportedFailures = 1000;
+        
+        public int getBatchSize() {
+            return batchSize;
+        }
+        
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+        
+        public int getMaxConcurrentImports() {
+            return maxConcurrentImports;
+        }
+        
+        public void setMaxConcurrentImports(int maxConcurrentImports) {
+            this.maxConcurrentImports = maxConcurrentImports;
+        }
+        
+        public int getMaxReportedFailures() {
+            return maxReportedFailures;
+        }
+        
+        public void setMaxReportedFailures(int maxReportedFailures) {
+            this.maxReportedFailures = maxReportedFailures;
+        }
+    }
+    
+    public static class Export {
+        private int maxConcurrentExports = 4;
+        
+        public int getMaxConcurrentExports() {
+            return maxConcurrentExports;
+        }
+        
+        public void setMaxConcurrentExports(int maxConcurrentExports) {
+            this.maxConcurrentExports = maxConcurrentExports;
+        }
+    }
+    
+    public static class Outbox {
+        private boolean relayEnabled = true;
+        private String topic = "user-events";
+        private int batchSize = 100;
+        private Duration pollInterval = Duration.ofMillis(500);
+        private Duration sendTimeout = Duration.ofSeconds(10);
+        
+        public boolean isRelayEnabled() {
+            return relayEnabled;
+        }
+        
+        public void setRelayEnabled(boolean relayEnabled) {
+            this.relayEnabled = relayEnabled;
+        }
+        
+        public String getTopic() {
+            return topic;
+        }
+        
+        public void setTopic(String topic) {
+            this.topic = topic;
+        }
+        
+        public int getBatchSize() {
+            return batchSize;
+        }
+        
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+        
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+        
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+        
+        public Duration getSendTimeout() {
+            return sendTimeout;
+        }
+        
+        public void setSendTimeout(Duration sendTimeout) {
+            this.sendTimeout = sendTimeout;
+        }
+    }
+    
+    public static class Grpc {
+        private ExecutionMode executionMode = ExecutionMode.PLATFORM;
+        private int maxConcurrentCalls = 20;
+        private Duration queueTimeout = Duration.ofSeconds(5);
+        private double requestLogSampleRate = 0.01;
+        private String forwardedUserHeader = "x-forwarded-user";
+        private List<String> trustedForwarders = new ArrayList<>();
+        private final RateLimit rateLimit = new RateLimit();
+        private final AdaptiveLimit adaptiveLimit = new AdaptiveLimit();
+        
+        public ExecutionMode getExecutionMode() {
+            return executionMode;
+        }
+        
+        public void setExecutionMode(ExecutionMode executionMode) {
+            this.executionMode = executionMode;
+        }
+        
+        public int getMaxConcurrentCalls() {
+            return maxConcurrentCalls;
+        }
+        
+        public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+        
+        public Duration getQueueTimeout() {
+            return queueTimeout;
+        }
+        
+        public void setQueueTimeout(Duration queueTimeout) {
+            this.queueTimeout = queueTimeout;
+        }
+        
+        public double getRequestLogSampleRate() {
+            return requestLogSampleRate;
+        }
+        
+        public void setRequestLogSampleRate(double requestLogSampleRate) {
+            this.requestLogSampleRate = requestLogSampleRate;
+        }
+        
+        public String getForwardedUserHeader() {
+            return forwardedUserHeader;
+        }
+        
+        public void setForwardedUserHeader(String forwardedUserHeader) {
+            this.forwardedUserHeader = forwardedUserHeader;
+        }
+        
+        public List<String> getTrustedForwarders() {
+            return trustedForwarders;
+        }
+        
+        public void setTrustedForwarders(List<String> trustedForwarders) {
+            this.trustedForwarders = trustedForwarders;
+        }
+        
+        public RateLimit getRateLimit() {
+            return rateLimit;
+        }
+        
+        public AdaptiveLimit getAdaptiveLimit() {
+            return adaptiveLimit;
+        }
+        
+        public enum ExecutionMode {
+            PLATFORM,
+            VIRTUAL
+        }
+        
+        public static class RateLimit {
+            private boolean enabled = false;
+            private double permitsPerSecond = 100;
+            private int burst = 200;
+            private Map<String, Limit> methods = new HashMap<>();
+            private long maxBuckets = 100_000;
+            private List<String> exemptClients = new ArrayList<>();
+            
+            public boolean isEnabled() {
+                return enabled;
+            }
+            
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+            
+            public double getPermitsPerSecond() {
+                return permitsPerSecond;
+            }
+            
+            public void setPermitsPerSecond(double permitsPerSecond) {
+                this.permitsPerSecond = permitsPerSecond;
+            }
+            
+            public int getBurst() {
+                return burst;
+            }
+            
+            public void setBurst(int burst) {
+                this.burst = burst;
+            }
+            
+            public Map<String, Limit> getMethods() {
+                return methods;
+            }
+            
+            public void setMethods(Map<String, Limit> methods) {
+                this.methods = methods;
+            }
+            
+            public long getMaxBuckets() {
+                return maxBuckets;
+            }
+            
+            public void setMaxBuckets(long maxBuckets) {
+                this.maxBuckets = maxBuckets;
+            }
+            
+            public List<String> getExemptClients() {
+                return exemptClients;
+            }
+            
+            public void setExemptClients(List<String> exemptClients) {
+                this.exemptClients = exemptClients;
+            }
+            
+            public static class Limit {
+                private double permitsPerSecond;
+                private int burst;
+                
+                public double getPermitsPerSecond() {
+                    return permitsPerSecond;
+                }
+                
+                public void setPermitsPerSecond(double permitsPerSecond) {
+                    this.permitsPerSecond = permitsPerSecond;
+                }
+                
+                public int getBurst() {
+                    return burst;
+                }
+                
+                public void setBurst(int burst) {
+                    this.burst = burst;
+                }
+            }
+        }
+        
+        public static class AdaptiveLimit {
+            private boolean enabled = true;
+            private int initialLimit = 20;
+            private int minLimit = 4;
+            private int maxLimit = 200;
+            private Duration latencyThreshold = Duration.ofMillis(250);
+            private double backoffRatio = 0.9;
+            
+            public boolean isEnabled() {
+                return enabled;
+            }
+            
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+            
+            public int getInitialLimit() {
+                return initialLimit;
+            }
+            
+            public void setInitialLimit(int initialLimit) {
+                this.initialLimit = initialLimit;
+            }
+            
+            public int getMinLimit() {
+                return minLimit;
+            }
+            
+            public void setMinLimit(int minLimit) {
+                this.minLimit = minLimit;
+            }
+            
+            public int getMaxLimit() {
+                return maxLimit;
+            }
+            
+            public void setMaxLimit(int maxLimit) {
+                this.maxLimit = maxLimit;
+            }
+            
+            public Duration getLatencyThreshold() {
+                return latencyThreshold;
+            }
+            
+            public void setLatencyThreshold(Duration latencyThreshold) {
+                this.latencyThreshold = latencyThreshold;
+            }
+            
+            public double getBackoffRatio() {
+                return backoffRatio;
+            }
+            
+            public void setBackoffRatio(double backoffRatio) {
+                this.backoffRatio = backoffRatio;
+            }
+        }
+    }
+    
+    public static class ExistenceFilter {
+        private boolean enabled = true;
+        private long expectedInsertions = 1_000_000;
+        private double falsePositiveRate = 0.01;
+        private Duration rebuildInterval = Duration.ofMinutes(10);
+        private Duration refreshInterval = Duration.ofSeconds(2);
+        private Duration refreshOverlap = Duration.ofSeconds(30);
+        private Duration maxStaleness = Duration.ofSeconds(5);
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public long getExpectedInsertions() {
+            return expectedInsertions;
+        }
+        
+        public void setExpectedInsertions(long expectedInsertions) {
+            this.expectedInsertions = expectedInsertions;
+        }
+        
+        public double getFalsePositiveRate() {
+            return falsePositiveRate;
+        }
+        
+        public void setFalsePositiveRate(double falsePositiveRate) {
+            this.falsePositiveRate = falsePositiveRate;
+        }
+        
+        public Duration getRebuildInterval() {
+            return rebuildInterval;
+        }
+        
+        public void setRebuildInterval(Duration rebuildInterval) {
+            this.rebuildInterval = rebuildInterval;
+        }
+        
+        public Duration getRefreshInterval() {
+            return refreshInterval;
+        }
+        
+        public void setRefreshInterval(Duration refreshInterval) {
+            this.refreshInterval = refreshInterval;
+        }
+        
+        public Duration getRefreshOverlap() {
+            return refreshOverlap;
+        }
+        
+        public void setRefreshOverlap(Duration refreshOverlap) {
+            this.refreshOverlap = refreshOverlap;
+        }
+        
+        public Duration getMaxStaleness() {
+            return maxStaleness;
+        }
+        
+        public void setMaxStaleness(Duration maxStaleness) {
+            this.maxStaleness = maxStaleness;
+        }
+    }
+    
+    public static class Channels {
+        private Duration liveResyncInterval = Duration.ofSeconds(30);
+        
+        public Duration getLiveResyncInterval() {
+            return liveResyncInterval;
+        }
+        
+        public void setLiveResyncInterval(Duration liveResyncInterval) {
+            this.liveResyncInterval = liveResyncInterval;
+        }
+    }
+    
+    public static class Security {
+        private final TokenCache tokenCache = new TokenCache();
+        private final Jwks jwks = new Jwks();
+        private int authoritiesCacheMaxSize = 1000;
+        
+        public TokenCache getTokenCache() {
+            return tokenCache;
+        }
+        
+        public Jwks getJwks() {
+            return jwks;
+        }
+        
+        public int getAuthoritiesCacheMaxSize() {
+            return authoritiesCacheMaxSize;
+        }
+        
+        public void setAuthoritiesCacheMaxSize(int authoritiesCacheMaxSize) {
+            this.authoritiesCacheMaxSize = authoritiesCacheMaxSize;
+        }
+        
+        public static class TokenCache {
+            private boolean enabled = true;
+            private long maxSize = 10_000;
+            private Duration maxTtl = Duration.ofMinutes(5);
+            
+            public boolean isEnabled() {
+                return enabled;
+            }
+            
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+            
+            public long getMaxSize() {
+                return maxSize;
+            }
+            
+            public void setMaxSize(long maxSize) {
+                this.maxSize = maxSize;
+            }
+            
+            public Duration getMaxTtl() {
+                return maxTtl;
+            }
+            
+            public void setMaxTtl(Duration maxTtl) {
+                this.maxTtl = maxTtl;
+            }
+        }
+        
+        public static class Jwks {
+            private Duration ttl = Duration.ofMinutes(15);
+            private Duration refreshAhead = Duration.ofMinutes(1);
+            
+            public Duration getTtl() {
+                return ttl;
+            }
+            
+            public void setTtl(Duration ttl) {
+                this.ttl = ttl;
+            }
+            
+            public Duration getRefreshAhead() {
+                return refreshAhead;
+            }
+            
+            public void setRefreshAhead(Duration refreshAhead) {
+                this.refreshAhead = refreshAhead;
+            }
+        }
+    }
+    
+    public static class Replicas {
+        private boolean enabled = false;
+        private List<Instance> instances = new ArrayList<>();
+        private int maximumPoolSize = 10;
+        private Duration connectionTimeout = Duration.ofSeconds(2);
+        private Duration healthCheckInterval = Duration.ofSeconds(5);
+        private Duration maxLag = Duration.ofSeconds(10);
+        private Duration readYourWritesWindow = Duration.ofSeconds(5);
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public List<Instance> getInstances() {
+            return instances;
+        }
+        
+        public void setInstances(List<Instance> instances) {
+            this.instances = instances;
+        }
+        
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+        
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+        
+        public Duration getConnectionTimeout() {
+            return connectionTimeout;
+        }
+        
+        public void setConnectionTimeout(Duration connectionTimeout) {
+            this.connectionTimeout = connectionTimeout;
+        }
+        
+        public Duration getHealthCheckInterval() {
+            return healthCheckInterval;
+        }
+        
+        public void setHealthCheckInterval(Duration healthCheckInterval) {
+            this.healthCheckInterval = healthCheckInterval;
+        }
+        
+        public Duration getMaxLag() {
+            return maxLag;
+        }
+        
+        public void setMaxLag(Duration maxLag) {
+            this.maxLag = maxLag;
+        }
+        
+        public Duration getReadYourWritesWindow() {
+            return readYourWritesWindow;
+        }
+        
+        public void setReadYourWritesWindow(Duration readYourWritesWindow) {
+            this.readYourWritesWindow = readYourWritesWindow;
+        }
+        
+        public static class Instance {
+            private String url;
+            private String username;
+            private String password;
+            
+            public String getUrl() {
+                return url;
+            }
+            
+            public void setUrl(String url) {
+                this.url = url;
+            }
+            
+            public String getUsername() {
+                return username;
+            }
+            
+            public void setUsername(String username) {
+                this.username = username;
+            }
+            
+            public String getPassword() {
+                return password;
+            }
+            
+            public void setPassword(String password) {
+                this.password = password;
+            }
+        }
     }
 }
@@ -0,0 +1,21 @@
+package inpt.aseds.userservice.application.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Every received record is counted exactly once;
+ * only the first failures are listed.
+ */
+public record ImportSummary(long received, long created, long updated, long unchanged, long failed,
+                            List<Failure> failures, long elapsedMillis) {
+
+    /**
+     * A record that could not be imported, by its zero-based position in the import.
+     */
+    public record Failure(long index, String username, String reason) {
+    }
+
+    public double recordsPerSecond() {
+        return received * 1000.0 / Math.max(1, elapsedMillis);
+    }
+}
@@ -0,0 +1,60 @@
+package inpt.aseds.userservice.application.dto;
+
+import inpt.aseds.userservice.domain.exceptions.UserValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset pagination cursor.
+ * Holds the sort key of the last returned row: the ID for listings, and the
+ * search rank, username length and ID for searches. Search cursors also carry
+ * a hash of the query so they cannot be replayed against a different query.
+ */
+public record PageToken(int rank, int length, long lastId, int queryHash) {
+
+    private static final String VERSION = "v1";
+
+    /**
+     * Cursor for ID-ordered listings.
+     */
+    public static PageToken afterId(long lastId) {
+        return new PageToken(0, 0, lastId, 0);
+    }
+
+    /**
+     * Cursor for ranked username searches, derived from the last returned username.
+     */
+    public static PageToken afterSearchResult(String query, String username, long lastId) {
+        return new PageToken(searchRank(query, username), username.length(), lastId, query.hashCode());
+    }
+
+    /**
+     * Rank used to order search results: 0 for an exact match, 1 for a prefix match, 2 otherwise.
+     */
+    public static int searchRank(String query, String username) {
+        if (username.equals(query)) {
+            return 0;
+        }
+        return username.startsWith(query) ? 1 : 2;
+    }
+
+    public String encode() {
+        String raw = VERSION + ":" + rank + ":" + length + ":" + lastId + ":" + queryHash;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageToken decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 5 || !VERSION.equals(parts[0])) {
+                throw new UserValidationException("page_token", "Invalid page token");
+            }
+            return new PageToken(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]),
+                    Long.parseLong(parts[3]), Integer.parseInt(parts[4]));
+        } catch (IllegalArgumentException e) {
+            throw new UserValidationException("page_token", "Invalid page token");
+        }
+    }
+}
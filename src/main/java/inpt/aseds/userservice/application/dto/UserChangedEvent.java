@@ -0,0 +1,26 @@
+package inpt.aseds.userservice.application.dto;
+
+import java.time.Instant;
+
+/**
+ * Payload of the user change events published to Kafka, keyed by user ID.
+ * Carries the user state after the change; profile fields are null for deletions.
+ */
+public record UserChangedEvent(
+        Type type,
+        Long userId,
+        String username,
+        String email,
+        String bio,
+        String avatarUrl,
+        String channelId,
+        boolean active,
+        Instant occurredAt) {
+
+    public enum Type {
+        USER_CREATED,
+        USER_UPDATED,
+        USER_DEACTIVATED,
+        USER_DELETED
+    }
+}
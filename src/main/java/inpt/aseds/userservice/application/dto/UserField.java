@@ -0,0 +1,67 @@
+package inpt.aseds.userservice.application.dto;
+
+import inpt.aseds.userservice.domain.exceptions.UserValidationException;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Fields of the User message that a read mask can select, named by their
+ * proto field paths. The ID is always returned.
+ */
+public enum UserField {
+    ID("id"),
+    USERNAME("username"),
+    BIO("bio"),
+    EMAIL("email"),
+    AVATAR_URL("avatar_url"),
+    CHANNEL_ID("channel_id"),
+    CREATED_AT("created_at"),
+    UPDATED_AT("updated_at"),
+    IS_ACTIVE("is_active"),
+    VERSION("version");
+
+    public static final Set<UserField> ALL = Collections.unmodifiableSet(EnumSet.allOf(UserField.class));
+
+    /**
+     * Fields read by the summary projection queries (see UserSummary).
+     */
+    public static final Set<UserField> SUMMARY = Collections.unmodifiableSet(EnumSet.of(ID, USERNAME, AVATAR_URL));
+
+    private static final UserField[] VALUES = values();
+
+    private final String path;
+
+    UserField(String path) {
+        this.path = path;
+    }
+
+    public String path() {
+        return path;
+    }
+
+    /**
+     * Resolves read mask paths; an empty mask selects every field.
+     */
+    public static Set<UserField> fromPaths(Collection<String> paths) {
+        if (paths.isEmpty()) {
+            return ALL;
+        }
+        EnumSet<UserField> fields = EnumSet.of(ID);
+        for (String path : paths) {
+            fields.add(forPath(path));
+        }
+        return fields.size() == VALUES.length ? ALL : fields;
+    }
+
+    private static UserField forPath(String path) {
+        for (UserField field : VALUES) {
+            if (field.path.equals(path)) {
+                return field;
+            }
+        }
+        throw new UserValidationException("read_mask", "Unknown user field: " + path);
+    }
+}
@@ -0,0 +1,12 @@
+package inpt.aseds.userservice.application.dto;
+
+import inpt.aseds.userservice.domain.model.User;
+
+import java.util.List;
+
+/**
+ * One page of users together with the cursor for the next page.
+ * Totals are only computed when requested and are zero otherwise.
+ */
+public record UserSlice(List<User> users, String nextPageToken, int totalPages, long totalElements) {
+}
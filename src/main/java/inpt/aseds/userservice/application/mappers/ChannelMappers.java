@@ -0,0 +1,70 @@
+package inpt.aseds.userservice.application.mappers;
+
+import inpt.aseds.userservice.domain.model.Channel;
+
+import java.util.Collection;
+import java.util.Map;
+
+public class ChannelMappers {
+
+    /**
+     * Convert a domain Channel to gRPC Channel
+     */
+    public static inpt.aseds.userservice.infrastructure.grpc.Channel toGrpcChannel(Channel domainChannel) {
+        if (domainChannel == null) {
+            return null;
+        }
+
+        inpt.aseds.userservice.infrastructure.grpc.Channel.Builder builder = inpt.aseds.userservice.infrastructure.grpc.Channel.newBuilder()
+                .setId(domainChannel.getId())
+                .setIsLive(domainChannel.isLive());
+
+        if (domainChannel.getOwnerId() != null) {
+            builder.setOwnerId(domainChannel.getOwnerId());
+        }
+
+        if (domainChannel.getChannelName() != null) {
+            builder.setChannelName(domainChannel.getChannelName());
+        }
+
+        if (domainChannel.getDescription() != null) {
+            builder.setDescription(domainChannel.getDescription());
+        }
+
+        if (domainChannel.getBannerUrl() != null) {
+            builder.setBannerUrl(domainChannel.getBannerUrl());
+        }
+
+        if (domainChannel.getLogoUrl() != null) {
+            builder.setLogoUrl(domainChannel.getLogoUrl());
+        }
+
+        if (domainChannel.getCreatedAt() != null) {
+            builder.setCreatedAt(UserMappers.dateToTimestamp(domainChannel.getCreatedAt()));
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Convert batch lookup results to gRPC BatchGetChannelsResponse, one item per requested ID
+     */
+    public static inpt.aseds.userservice.infrastructure.grpc.BatchGetChannelsResponse toBatchGetChannelsResponse(
+            Collection<String> requestedIds, Map<String, Channel> channels) {
+
+        inpt.aseds.userservice.infrastructure.grpc.BatchGetChannelsResponse.Builder response =
+                inpt.aseds.userservice.infrastructure.grpc.BatchGetChannelsResponse.newBuilder();
+
+        for (String id : requestedIds) {
+            inpt.aseds.userservice.infrastructure.grpc.BatchGetChannelsItem.Builder item =
+                    inpt.aseds.userservice.infrastructure.grpc.BatchGetChannelsItem.newBuilder().setId(id);
+            Channel channel = channels.get(id);
+            if (channel != null) {
+                item.setFound(true).setChannel(toGrpcChannel(channel));
+            }
+            response.addItems(item);
+        }
+
+        return response.build();
+    }
+}
@@ -1,14 +1,22 @@
 package inpt.aseds.userservice.application.mappers;
 
 
+import com.google.protobuf.FieldMask;
 import com.google.protobuf.Timestamp;
+import inpt.aseds.userservice.application.dto.ImportSummary;
+import inpt.aseds.userservice.application.dto.UserField;
+import inpt.aseds.userservice.application.dto.UserSlice;
+import inpt.aseds.userservice.domain.model.Channel;
 import inpt.aseds.userservice.domain.model.User;
 import com.google.protobuf.StringValue;
 import com.google.protobuf.BoolValue;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class UserMappers {
@@ -25,7 +33,8 @@ public class UserMappers {
                 .setId(domainUser.getId())
                 .setUsername(domainUser.getUsername())
                 .setIsActive(domainUser.isActive())
-                .setEmail(domainUser.getEmail());
+                .setEmail(domainUser.getEmail())
+                .setVersion(domainUser.getVersion());
 
         if (domainUser.getBio() != null) {
             builder.setBio(domainUser.getBio());
@@ -50,6 +59,109 @@ public class UserMappers {
         return builder.build();
     }
 
+    /**
+     * Convert a domain User to gRPC User, setting only the given fields
+     */
+    public static inpt.aseds.userservice.infrastructure.grpc.User toGrpcUser(User domainUser, Set<UserField> fields) {
+        if (fields == UserField.ALL) {
+            return toGrpcUser(domainUser);
+        }
+        if (domainUser == null) {
+            return null;
+        }
+
+        inpt.aseds.userservice.infrastructure.grpc.User.Builder builder = inpt.aseds.userservice.infrastructure.grpc.User.newBuilder()
+                .setId(domainUser.getId());
+
+        if (fields.contains(UserField.USERNAME) && domainUser.getUsername() != null) {
+            builder.setUsername(domainUser.getUsername());
+        }
+
+        if (fields.contains(UserField.BIO) && domainUser.getBio() != null) {
+            builder.setBio(domainUser.getBio());
+        }
+
+        if (fields.contains(UserField.EMAIL) && domainUser.getEmail() != null) {
+            builder.setEmail(domainUser.getEmail());
+        }
+
+        if (fields.contains(UserField.AVATAR_URL) && domainUser.getAvatarUrl() != null) {
+            builder.setAvatarUrl(domainUser.getAvatarUrl());
+        }
+
+        if (fields.contains(UserField.CHANNEL_ID) && domainUser.getChannelId() != null) {
+            builder.setChannelId(domainUser.getChannelId());
+        }
+
+        if (fields.contains(UserField.CREATED_AT) && domainUser.getCreatedAt() != null) {
+            builder.setCreatedAt(dateToTimestamp(domainUser.getCreatedAt()));
+        }
+
+        if (fields.contains(UserField.UPDATED_AT) && domainUser.getUpdatedAt() != null) {
+            builder.setUpdatedAt(dateToTimestamp(domainUser.getUpdatedAt()));
+        }
+
+        if (fields.contains(UserField.IS_ACTIVE)) {
+            builder.setIsActive(domainUser.isActive());
+        }
+
+        if (fields.contains(UserField.VERSION)) {
+            builder.setVersion(domainUser.getVersion());
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Copy only the given fields of a gRPC User, e.g. one taken from the response cache
+     */
+    public static inpt.aseds.userservice.infrastructure.grpc.User mask(
+            inpt.aseds.userservice.infrastructure.grpc.User grpcUser, Set<UserField> fields) {
+        if (fields == UserField.ALL) {
+            return grpcUser;
+        }
+
+        inpt.aseds.userservice.infrastructure.grpc.User.Builder builder = inpt.aseds.userservice.infrastructure.grpc.User.newBuilder()
+                .setId(grpcUser.getId());
+
+        if (fields.contains(UserField.USERNAME)) {
+            builder.setUsername(grpcUser.getUsername());
+        }
+        if (fields.contains(UserField.BIO)) {
+            builder.setBio(grpcUser.getBio());
+        }
+        if (fields.contains(UserField.EMAIL)) {
+            builder.setEmail(grpcUser.getEmail());
+        }
+        if (fields.contains(UserField.AVATAR_URL)) {
+            builder.setAvatarUrl(grpcUser.getAvatarUrl());
+        }
+        if (fields.contains(UserField.CHANNEL_ID)) {
+            builder.setChannelId(grpcUser.getChannelId());
+        }
+        if (fields.contains(UserField.CREATED_AT) && grpcUser.hasCreatedAt()) {
+            builder.setCreatedAt(grpcUser.getCreatedAt());
+        }
+        if (fields.contains(UserField.UPDATED_AT) && grpcUser.hasUpdatedAt()) {
+            builder.setUpdatedAt(grpcUser.getUpdatedAt());
+        }
+        if (fields.contains(UserField.IS_ACTIVE)) {
+            builder.setIsActive(grpcUser.getIsActive());
+        }
+        if (fields.contains(UserField.VERSION)) {
+            builder.setVersion(grpcUser.getVersion());
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Resolve a read mask to the User fields it selects; an empty mask selects all of them
+     */
+    public static Set<UserField> toUserFields(FieldMask readMask) {
+        return UserField.fromPaths(readMask.getPathsList());
+    }
+
     /**
      * Convert a gRPC User to domain User
      */
@@ -78,6 +190,19 @@ public class UserMappers {
         return user;
     }
 
+    /**
+     * Convert a gRPC ImportUserRecord to domain User, unset fields becoming null
+     */
+    public static User toDomainUser(inpt.aseds.userservice.infrastructure.grpc.ImportUserRecord record) {
+        User user = new User();
+        user.setUsername(record.getUsername());
+        user.setEmail(record.getEmail());
+        user.setBio(record.getBio().isEmpty() ? null : record.getBio());
+        user.setAvatarUrl(record.getAvatarUrl().isEmpty() ? null : record.getAvatarUrl());
+        user.setChannelId(record.getChannelId().isEmpty() ? null : record.getChannelId());
+        return user;
+    }
+
     /**
      * Apply updates from UpdateUserRequest to domain User
      */
@@ -103,6 +228,41 @@ public class UserMappers {
         }
     }
 
+    /**
+     * Convert a page of domain Users to gRPC ListUsersResponse, including the next page token
+     */
+    public static inpt.aseds.userservice.infrastructure.grpc.ListUsersResponse toListUsersResponse(UserSlice slice) {
+        List<inpt.aseds.userservice.infrastructure.grpc.User> grpcUsers = slice.users().stream()
+                .map(UserMappers::toGrpcUser)
+                .collect(Collectors.toList());
+
+        return inpt.aseds.userservice.infrastructure.grpc.ListUsersResponse.newBuilder()
+                .addAllUsers(grpcUsers)
+                .setTotalPages(slice.totalPages())
+                .setTotalElements(slice.totalElements())
+                .setNextPageToken(slice.nextPageToken())
+                .build();
+    }
+
+    /**
+     * Convert a page of domain Users to gRPC ListUsersResponse, setting only the given user fields
+     */
+    public static inpt.aseds.userservice.infrastructure.grpc.ListUsersResponse toListUsersResponse(
+            UserSlice slice, Set<UserField> fields) {
+
+        inpt.aseds.userservice.infrastructure.grpc.ListUsersResponse.Builder response =
+                inpt.aseds.userservice.infrastructure.grpc.ListUsersResponse.newBuilder()
+                        .setTotalPages(slice.totalPages())
+                        .setTotalElements(slice.totalElements())
+                        .setNextPageToken(slice.nextPageToken());
+
+        for (User user : slice.users()) {
+            response.addUsers(toGrpcUser(user, fields));
+        }
+
+        return response.build();
+    }
+
     /**
      * Convert a list of domain Users to gRPC ListUsersResponse
      */
@@ -120,10 +280,114 @@ public class UserMappers {
                 .build();
     }
 
+    /**
+     * Convert batch lookup results to gRPC BatchGetUsersResponse, one item per requested ID
+     */
+    public static inpt.aseds.userservice.infrastructure.grpc.BatchGetUsersResponse toBatchGetUsersResponse(
+            Collection<Long> requestedIds, Map<Long, User> users) {
+
+        inpt.aseds.userservice.infrastructure.grpc.BatchGetUsersResponse.Builder response =
+                inpt.aseds.userservice.infrastructure.grpc.BatchGetUsersResponse.newBuilder();
+
+        for (Long id : requestedIds) {
+            inpt.aseds.userservice.infrastructure.grpc.BatchGetUsersItem.Builder item =
+                    inpt.aseds.userservice.infrastructure.grpc.BatchGetUsersItem.newBuilder().setId(id);
+            User user = users.get(id);
+            if (user != null) {
+                item.setFound(true).setUser(toGrpcUser(user));
+            }
+            response.addItems(item);
+        }
+
+        return response.build();
+    }
+
+    /**
+     * Combine a gRPC User with its channel, looked up by the user's channel ID
+     */
+    public static inpt.aseds.userservice.infrastructure.grpc.UserProfile toGrpcUserProfile(
+            inpt.aseds.userservice.infrastructure.grpc.User grpcUser, Map<String, Channel> channels) {
+
+        inpt.aseds.userservice.infrastructure.grpc.UserProfile.Builder profile =
+                inpt.aseds.userservice.infrastructure.grpc.UserProfile.newBuilder().setUser(grpcUser);
+
+        Channel channel = grpcUser.getChannelId().isEmpty() ? null : channels.get(grpcUser.getChannelId());
+        if (channel != null) {
+            profile.setChannel(ChannelMappers.toGrpcChannel(channel));
+        }
+
+        return profile.build();
+    }
+
+    /**
+     * Convert batch profile lookup results to gRPC BatchGetUserProfilesResponse, one item per requested ID
+     */
+    public static inpt.aseds.userservice.infrastructure.grpc.BatchGetUserProfilesResponse toBatchGetUserProfilesResponse(
+            Collection<Long> requestedIds, Map<Long, User> users, Map<String, Channel> channels) {
+
+        inpt.aseds.userservice.infrastructure.grpc.BatchGetUserProfilesResponse.Builder response =
+                inpt.aseds.userservice.infrastructure.grpc.BatchGetUserProfilesResponse.newBuilder();
+
+        for (Long id : requestedIds) {
+            inpt.aseds.userservice.infrastructure.grpc.BatchGetUserProfilesItem.Builder item =
+                    inpt.aseds.userservice.infrastructure.grpc.BatchGetUserProfilesItem.newBuilder().setId(id);
+            User user = users.get(id);
+            if (user != null) {
+                item.setFound(true).setProfile(toGrpcUserProfile(toGrpcUser(user), channels));
+            }
+            response.addItems(item);
+        }
+
+        return response.build();
+    }
+
+    /**
+     * Convert a page of domain Users and their channels to gRPC ListUserProfilesResponse
+     */
+    public static inpt.aseds.userservice.infrastructure.grpc.ListUserProfilesResponse toListUserProfilesResponse(
+            UserSlice slice, Map<String, Channel> channels) {
+
+        inpt.aseds.userservice.infrastructure.grpc.ListUserProfilesResponse.Builder response =
+                inpt.aseds.userservice.infrastructure.grpc.ListUserProfilesResponse.newBuilder()
+                        .setTotalPages(slice.totalPages())
+                        .setTotalElements(slice.totalElements())
+                        .setNextPageToken(slice.nextPageToken());
+
+        for (User user : slice.users()) {
+            response.addProfiles(toGrpcUserProfile(toGrpcUser(user), channels));
+        }
+
+        return response.build();
+    }
+
+    /**
+     * Convert an import summary to gRPC ImportUsersResponse
+     */
+    public static inpt.aseds.userservice.infrastructure.grpc.ImportUsersResponse toImportUsersResponse(ImportSummary summary) {
+        inpt.aseds.userservice.infrastructure.grpc.ImportUsersResponse.Builder response =
+                inpt.aseds.userservice.infrastructure.grpc.ImportUsersResponse.newBuilder()
+                        .setReceived(summary.received())
+                        .setCreated(summary.created())
+                        .setUpdated(summary.updated())
+                        .setUnchanged(summary.unchanged())
+                        .setFailed(summary.failed())
+                        .setElapsedMillis(summary.elapsedMillis())
+                        .setRecordsPerSecond(summary.recordsPerSecond());
+
+        for (ImportSummary.Failure failure : summary.failures()) {
+            response.addFailures(inpt.aseds.userservice.infrastructure.grpc.ImportUserFailure.newBuilder()
+                    .setIndex(failure.index())
+                    .setUsername(failure.username())
+                    .setReason(failure.reason()));
+        }
+
+        return response.build();
+    }
+
     /**
      * Convert Java Date to Protobuf Timestamp
      */
-    private static Timestamp dateToTimestamp(Date date) {
+    static Timestamp dateToTimestamp(Date date) {
         long seconds = date.getTime() / 1000;
         int nanos = (int) ((date.getTime() % 1000) * 1000000);
         return Timestamp.newBuilder().setSeconds(seconds).setNanos(nanos).build();
@@ -0,0 +1,81 @@
+package inpt.aseds.userservice.application.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import inpt.aseds.userservice.application.dto.UserChangedEvent;
+import inpt.aseds.userservice.domain.exceptions.UserOperationException;
+import inpt.aseds.userservice.domain.model.OutboxEvent;
+import inpt.aseds.userservice.domain.model.User;
+import inpt.aseds.userservice.domain.repository.OutboxEventRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Records user change events in the outbox table.
+ * Must be called inside the transaction that performs the change, so the
+ * event is stored if and only if the change commits.
+ */
+@Component
+public class UserOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public UserOutbox(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public void record(UserChangedEvent.Type type, User user) {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setUserId(user.getId());
+        outboxEvent.setEventType(type.name());
+        outboxEvent.setPayload(payload(type, user, Instant.now()));
+        outboxEventRepository.save(outboxEvent);
+    }
+
+    /**
+     * Records an event for each user, USER_CREATED for users with version 0
+     * and USER_UPDATED otherwise, in a single insert.
+     */
+    public void recordWritten(List<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        Long[] userIds = new Long[users.size()];
+        String[] eventTypes = new String[users.size()];
+        String[] payloads = new String[users.size()];
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            UserChangedEvent.Type type = user.getVersion() == 0
+                    ? UserChangedEvent.Type.USER_CREATED
+                    : UserChangedEvent.Type.USER_UPDATED;
+            userIds[i] = user.getId();
+            eventTypes[i] = type.name();
+            payloads[i] = payload(type, user, now);
+        }
+        outboxEventRepository.insertAll(userIds, eventTypes, payloads);
+    }
+
+    private String payload(UserChangedEvent.Type type, User user, Instant occurredAt) {
+        boolean deleted = type == UserChangedEvent.Type.USER_DELETED;
+        UserChangedEvent event = new UserChangedEvent(
+                type,
+                user.getId(),
+                user.getUsername(),
+                deleted ? null : user.getEmail(),
+                deleted ? null : user.getBio(),
+                deleted ? null : user.getAvatarUrl(),
+                deleted ? null : user.getChannelId(),
+                !deleted && user.isActive(),
+                occurredAt);
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new UserOperationException("outbox", "Failed to serialize user event");
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package inpt.aseds.userservice.application.services;
+
+import inpt.aseds.userservice.application.cache.LiveChannelIndex;
+import inpt.aseds.userservice.application.config.UserServiceProperties;
+import inpt.aseds.userservice.application.mappers.ChannelMappers;
+import inpt.aseds.userservice.domain.exceptions.ChannelNotFoundException;
+import inpt.aseds.userservice.domain.exceptions.UserOperationException;
+import inpt.aseds.userservice.domain.exceptions.UserValidationException;
+import inpt.aseds.userservice.domain.model.Channel;
+import inpt.aseds.userservice.domain.model.User;
+import inpt.aseds.userservice.domain.repository.ChannelRepository;
+import inpt.aseds.userservice.infrastructure.grpc.ListLiveChannelsResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service for channel lookups and live status.
+ * Lookups go to the database (or the second-level cache when enabled); the
+ * live channel listing is served from {@link LiveChannelIndex}.
+ *
+ * Like {@link UserService}, methods run in read-only transactions, and so on
+ * a replica when app.user.replicas is enabled, unless annotated otherwise.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ChannelService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChannelService.class);
+
+    private static final String PAGE_TOKEN_PREFIX = "c1:";
+
+    private final ChannelRepository channelRepository;
+    private final ValidationService validationService;
+    private final UserServiceProperties properties;
+    private final LiveChannelIndex liveChannelIndex;
+
+    public ChannelService(ChannelRepository channelRepository, ValidationService validationService,
+                          UserServiceProperties properties, LiveChannelIndex liveChannelIndex) {
+        this.channelRepository = channelRepository;
+        this.validationService = validationService;
+        this.properties = properties;
+        this.liveChannelIndex = liveChannelIndex;
+    }
+
+    /**
+     * Retrieves a channel by ID.
+     */
+    public Channel getChannelById(String id) {
+        validationService.validateChannelId(id);
+
+        return channelRepository.findById(id)
+                .orElseThrow(() -> new ChannelNotFoundException(id));
+    }
+
+    /**
+     * Retrieves several channels by ID in as few queries as possible.
+     * Duplicate IDs are collapsed and the IN-list is split into chunks of
+     * app.user.batch.chunk-size. The returned map follows the order in which
+     * IDs were first requested and only contains the channels that were found.
+     */
+    public Map<String, Channel> getChannelsByIds(Collection<String> ids) {
+        validationService.validateChannelIds(ids);
+
+        List<String> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<String, Channel> found = loadByIds(distinctIds);
+
+        Map<String, Channel> ordered = new LinkedHashMap<>(found.size() * 2);
+        for (String id : distinctIds) {
+            Channel channel = found.get(id);
+            if (channel != null) {
+                ordered.put(id, channel);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Loads the channels of the given users, keyed by channel ID, with one IN
+     * query per app.user.batch.chunk-size distinct channels. Users without a
+     * channel are skipped.
+     */
+    public Map<String, Channel> getChannelsOfUsers(Collection<User> users) {
+        Set<String> channelIds = new LinkedHashSet<>();
+        for (User user : users) {
+            if (StringUtils.hasText(user.getChannelId())) {
+                channelIds.add(user.getChannelId());
+            }
+        }
+        if (channelIds.isEmpty()) {
+            return Map.of();
+        }
+        return loadByIds(new ArrayList<>(channelIds));
+    }
+
+    /**
+     * Lists live channels ordered by ID from the in-memory index, without a query.
+     * A size of zero means the default page size.
+     */
+    public ListLiveChannelsResponse listLiveChannels(int size, String pageToken) {
+        int pageSize = size == 0 ? properties.getPagination().getDefaultPageSize() : size;
+        validationService.validatePagination(0, pageSize);
+
+        String afterId = StringUtils.hasText(pageToken) ? decodePageToken(pageToken) : null;
+        // One extra channel tells whether there is a next page
+        List<inpt.aseds.userservice.infrastructure.grpc.Channel> channels = liveChannelIndex.page(afterId, pageSize + 1);
+
+        ListLiveChannelsResponse.Builder response = ListLiveChannelsResponse.newBuilder()
+                .setTotalLive(liveChannelIndex.size());
+        if (channels.size() > pageSize) {
+            channels = channels.subList(0, pageSize);
+            response.setNextPageToken(encodePageToken(channels.get(pageSize - 1).getId()));
+        }
+        return response.addAllChannels(channels).build();
+    }
+
+    /**
+     * Starts or stops a channel's live status.
+     * The live channel index is updated once the change commits.
+     */
+    @Transactional
+    public inpt.aseds.userservice.infrastructure.grpc.Channel setLive(String id, boolean live) {
+        validationService.validateChannelId(id);
+
+        Channel channel = channelRepository.findById(id)
+                .orElseThrow(() -> new ChannelNotFoundException(id));
+
+        if (channel.isLive() != live) {
+            try {
+                channel.setLive(live);
+                channelRepository.saveAndFlush(channel);
+            } catch (Exception e) {
+                log.error("Failed to set live status of channel: {}", id, e);
+                throw new UserOperationException("set-live", "Failed to update channel");
+            }
+            log.info("Channel {} is {}", id, live ? "live" : "offline");
+        }
+
+        inpt.aseds.userservice.infrastructure.grpc.Channel message = ChannelMappers.toGrpcChannel(channel);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    liveChannelIndex.update(message);
+                }
+            });
+        } else {
+            liveChannelIndex.update(message);
+        }
+        return message;
+    }
+
+    private Map<String, Channel> loadByIds(List<String> distinctIds) {
+        int chunkSize = Math.max(1, properties.getBatch().getChunkSize());
+
+        Map<String, Channel> found = new HashMap<>(distinctIds.size() * 2);
+        try {
+            for (int from = 0; from < distinctIds.size(); from += chunkSize) {
+                List<String> chunk = distinctIds.subList(from, Math.min(from + chunkSize, distinctIds.size()));
+                for (Channel channel : channelRepository.findByIdIn(chunk)) {
+                    found.put(channel.getId(), channel);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to batch load {} channels", distinctIds.size(), e);
+            throw new UserOperationException("batch-get", "Failed to retrieve channels");
+        }
+        return found;
+    }
+
+    private static String encodePageToken(String lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PAGE_TOKEN_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodePageToken(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (raw.startsWith(PAGE_TOKEN_PREFIX)) {
+                return raw.substring(PAGE_TOKEN_PREFIX.length());
+            }
+        } catch (IllegalArgumentException e) {
+            // fall through to the validation error
+        }
+        throw new UserValidationException("page_token", "Invalid page token");
+    }
+}
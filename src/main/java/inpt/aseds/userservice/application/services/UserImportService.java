@@ -0,0 +1,262 @@
+package inpt.aseds.userservice.application.services;
+
+import inpt.aseds.userservice.application.cache.UserCache;
+import inpt.aseds.userservice.application.cache.UserExistenceFilter;
+import inpt.aseds.userservice.application.cache.UserResponseCache;
+import inpt.aseds.userservice.application.config.UserServiceProperties;
+import inpt.aseds.userservice.application.dto.ImportSummary;
+import inpt.aseds.userservice.application.outbox.UserOutbox;
+import inpt.aseds.userservice.domain.exceptions.UserValidationException;
+import inpt.aseds.userservice.domain.model.User;
+import inpt.aseds.userservice.domain.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Imports users in bulk, creating new usernames and updating existing ones.
+ *
+ * Records are validated one by one and written app.user.import.batch-size at a
+ * time, each batch in its own transaction with a single INSERT ... ON CONFLICT
+ * statement and a single outbox insert. When a batch violates a constraint
+ * (typically an email already used by another user) it is retried record by
+ * record so that only the offending records fail. Batches that committed stay
+ * committed if the import is later aborted.
+ *
+ * Exported as user.import.records, tagged with result.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    private static final UserValidationException EMAIL_REQUIRED =
+            new UserValidationException("email", "Email is required");
+
+    private final UserRepository userRepository;
+    private final ValidationService validationService;
+    private final UserServiceProperties properties;
+    private final UserCache userCache;
+    private final UserResponseCache userResponseCache;
+    private final UserExistenceFilter existenceFilter;
+    private final UserOutbox userOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter createdRecords;
+    private final Counter updatedRecords;
+    private final Counter unchangedRecords;
+    private final Counter failedRecords;
+
+    public UserImportService(UserRepository userRepository, ValidationService validationService,
+                             UserServiceProperties properties, UserCache userCache,
+                             UserResponseCache userResponseCache, UserExistenceFilter existenceFilter,
+                             UserOutbox userOutbox, PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.validationService = validationService;
+        this.properties = properties;
+        this.userCache = userCache;
+        this.userResponseCache = userResponseCache;
+        this.existenceFilter = existenceFilter;
+        this.userOutbox = userOutbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.createdRecords = recordCounter("created", meterRegistry);
+        this.updatedRecords = recordCounter("updated", meterRegistry);
+        this.unchangedRecords = recordCounter("unchanged", meterRegistry);
+        this.failedRecords = recordCounter("failed", meterRegistry);
+    }
+
+    /**
+     * Starts an import. The returned import is not thread-safe and must be fed
+     * by one thread at a time.
+     */
+    public UserImport startImport() {
+        return new UserImport();
+    }
+
+    /**
+     * Writes one batch and returns the inserted and updated users.
+     * Usernames must be distinct within the batch.
+     */
+    private List<User> write(List<User> users) {
+        return transactionTemplate.execute(status -> {
+            // Added before the INSERT so a check racing the commit falls through to the database
+            existenceFilter.addAll(users);
+            List<User> written = userRepository.upsertAll(users);
+            userOutbox.recordWritten(written);
+            for (User user : written) {
+                if (user.getVersion() > 0) {
+                    userCache.evict(user.getId(), user.getUsername());
+                    userResponseCache.evict(user.getId());
+                }
+            }
+            return written;
+        });
+    }
+
+    private static Counter recordCounter(String result, MeterRegistry meterRegistry) {
+        return Counter.builder("user.import.records")
+                .description("Records received by user imports, by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A running import. Records are buffered until a batch is full, so
+     * {@link #add(User)} blocks on the database every app.user.import.batch-size
+     * records and {@link #finish()} writes whatever is left.
+     */
+    public final class UserImport {
+
+        private final long started = System.nanoTime();
+        private final int batchSize = Math.max(1, properties.getImport().getBatchSize());
+        private final int maxReportedFailures = Math.max(0, properties.getImport().getMaxReportedFailures());
+        // Keyed by username, which the upsert requires to be distinct
+        private final Map<String, Pending> batch = new LinkedHashMap<>();
+        private final List<ImportSummary.Failure> failures = new ArrayList<>();
+        private long received;
+        private long created;
+        private long updated;
+        private long unchanged;
+        private long failed;
+
+        private UserImport() {
+        }
+
+        /**
+         * Adds the next record. Invalid records are counted as failures; a
+         * database error other than a constraint violation aborts the import.
+         */
+        public void add(User record) {
+            long index = received++;
+            User user;
+            try {
+                user = normalize(record);
+            } catch (UserValidationException e) {
+                fail(index, record.getUsername(), e.getMessage());
+                return;
+            }
+
+            // A username repeated within a batch cannot be upserted twice by one statement
+            if (batch.containsKey(user.getUsername())) {
+                flush();
+            }
+            batch.put(user.getUsername(), new Pending(index, user));
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        /**
+         * Returns the number of records added so far.
+         */
+        public long received() {
+            return received;
+        }
+
+        /**
+         * Writes the remaining records and summarizes the import.
+         */
+        public ImportSummary finish() {
+            flush();
+            long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+            return new ImportSummary(received, created, updated, unchanged, failed,
+                    List.copyOf(failures), elapsedMillis);
+        }
+
+        private User normalize(User record) {
+            validationService.validateUsername(record.getUsername());
+            if (!StringUtils.hasText(record.getEmail())) {
+                throw EMAIL_REQUIRED;
+            }
+            validationService.validateEmail(record.getEmail());
+            validationService.validateBio(record.getBio());
+
+            User user = new User();
+            user.setUsername(record.getUsername().trim());
+            user.setEmail(record.getEmail().trim());
+            user.setBio(trimToNull(record.getBio()));
+            user.setAvatarUrl(trimToNull(record.getAvatarUrl()));
+            user.setChannelId(trimToNull(record.getChannelId()));
+            return user;
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<Pending> records = new ArrayList<>(batch.values());
+            batch.clear();
+
+            List<User> users = new ArrayList<>(records.size());
+            for (Pending record : records) {
+                users.add(record.user());
+            }
+            try {
+                count(users.size(), write(users));
+                return;
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Batch of {} users violated a constraint, retrying one by one", users.size());
+            }
+
+            for (Pending record : records) {
+                try {
+                    count(1, write(List.of(record.user())));
+                } catch (DataIntegrityViolationException e) {
+                    fail(record.index(), record.user().getUsername(), reason(e));
+                }
+            }
+        }
+
+        private void count(int records, List<User> written) {
+            long inserted = 0;
+            for (User user : written) {
+                if (user.getVersion() == 0) {
+                    inserted++;
+                }
+            }
+            long changed = written.size() - inserted;
+            long same = records - written.size();
+
+            created += inserted;
+            updated += changed;
+            unchanged += same;
+            createdRecords.increment(inserted);
+            updatedRecords.increment(changed);
+            unchangedRecords.increment(same);
+        }
+
+        private void fail(long index, String username, String reason) {
+            failed++;
+            failedRecords.increment();
+            if (failures.size() < maxReportedFailures) {
+                failures.add(new ImportSummary.Failure(index, username == null ? "" : username, reason));
+            }
+        }
+
+        private static String reason(DataIntegrityViolationException e) {
+            if ("email".equals(UserService.violatedUniqueField(e))) {
+                return "Email is already taken";
+            }
+            log.warn("Unexpected constraint violation during import: {}", e.getMostSpecificCause().getMessage());
+            return "Failed to import user";
+        }
+
+        private static String trimToNull(String value) {
+            return StringUtils.hasText(value) ? value.trim() : null;
+        }
+    }
+
+    private record Pending(long index, User user) {
+    }
+}
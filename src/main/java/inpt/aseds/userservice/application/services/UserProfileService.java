@@ -0,0 +1,67 @@
+package inpt.aseds.userservice.application.services;
+
+import inpt.aseds.userservice.application.dto.UserSlice;
+import inpt.aseds.userservice.application.mappers.UserMappers;
+import inpt.aseds.userservice.domain.model.Channel;
+import inpt.aseds.userservice.domain.model.User;
+import inpt.aseds.userservice.infrastructure.grpc.BatchGetUserProfilesResponse;
+import inpt.aseds.userservice.infrastructure.grpc.ListUserProfilesResponse;
+import inpt.aseds.userservice.infrastructure.grpc.UserProfile;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads users together with their channels.
+ * Users are loaded exactly as by {@link UserService}, then the channels of a
+ * whole page or batch are fetched with a single IN query (per
+ * app.user.batch.chunk-size channels), so the query count does not grow with
+ * the number of users.
+ */
+@Service
+public class UserProfileService {
+
+    private final UserService userService;
+    private final ChannelService channelService;
+
+    public UserProfileService(UserService userService, ChannelService channelService) {
+        this.userService = userService;
+        this.channelService = channelService;
+    }
+
+    /**
+     * Retrieves a user and their channel.
+     * The user message comes from the response cache when enabled.
+     */
+    public UserProfile getProfile(Long id) {
+        inpt.aseds.userservice.infrastructure.grpc.User user = userService.getUserMessageById(id);
+        Map<String, Channel> channels = user.getChannelId().isEmpty()
+                ? Map.of()
+                : channelService.getChannelsByIds(List.of(user.getChannelId()));
+
+        return UserMappers.toGrpcUserProfile(user, channels);
+    }
+
+    /**
+     * Retrieves several users and their channels, one item per distinct requested ID.
+     */
+    public BatchGetUserProfilesResponse getProfilesByIds(Collection<Long> ids) {
+        Map<Long, User> users = userService.getUsersByIds(ids);
+        Map<String, Channel> channels = channelService.getChannelsOfUsers(users.values());
+
+        return UserMappers.toBatchGetUserProfilesResponse(new LinkedHashSet<>(ids), users, channels);
+    }
+
+    /**
+     * Lists active users with their channels, paged like {@link UserService#listActiveUsers}.
+     */
+    public ListUserProfilesResponse listActiveProfiles(int page, int size, String pageToken, boolean includeTotal) {
+        UserSlice slice = userService.listActiveUsers(page, size, pageToken, includeTotal);
+        Map<String, Channel> channels = channelService.getChannelsOfUsers(slice.users());
+
+        return UserMappers.toListUserProfilesResponse(slice, channels);
+    }
+}
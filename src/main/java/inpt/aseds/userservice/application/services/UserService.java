@@ -1,116 +1,275 @@
 package inpt.aseds.userservice.application.services;
 
+import inpt.aseds.userservice.application.cache.SingleFlight;
+import inpt.aseds.userservice.application.cache.UserCache;
+import inpt.aseds.userservice.application.cache.UserExistenceFilter;
+import inpt.aseds.userservice.application.cache.UserResponseCache;
+import inpt.aseds.userservice.application.config.UserServiceProperties;
+import inpt.aseds.userservice.application.dto.PageToken;
+import inpt.aseds.userservice.application.dto.UserField;
+import inpt.aseds.userservice.application.dto.UserChangedEvent;
+import inpt.aseds.userservice.application.dto.UserSlice;
+import inpt.aseds.userservice.application.mappers.UserMappers;
+import inpt.aseds.userservice.application.outbox.UserOutbox;
+import inpt.aseds.userservice.domain.exceptions.UserConflictException;
 import inpt.aseds.userservice.domain.exceptions.UserNotFoundException;
 import inpt.aseds.userservice.domain.exceptions.UserOperationException;
+import inpt.aseds.userservice.domain.exceptions.UserValidationException;
 import inpt.aseds.userservice.domain.model.User;
 import inpt.aseds.userservice.domain.repository.UserRepository;
-import jakarta.transaction.Transactional;
+import inpt.aseds.userservice.domain.repository.UserSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+/**
+ * Reads and writes users.
+ *
+ * Methods run in read-only transactions unless annotated otherwise: Hibernate
+ * loads their entities without dirty-checking snapshots and never flushes,
+ * and a replica serves them when app.user.replicas is enabled. Lookups by ID
+ * and username run read-write on the primary, because they fill the shared
+ * user cache, which must not be refilled from a replica that has not caught
+ * up with an update yet; their entities are still loaded read-only.
+ */
 @Service 
-@Transactional
+@Transactional(readOnly = true)
 public class UserService {
     
     private static final Logger log = LoggerFactory.getLogger(UserService.class);
     
     private final UserRepository userRepository;
     private final ValidationService validationService;
+    private final UserServiceProperties properties;
+    private final UserCache userCache;
+    private final UserResponseCache userResponseCache;
+    private final EntityManager entityManager;
+    private final UserOutbox userOutbox;
+    private final UserExistenceFilter existenceFilter;
+    private final SingleFlight<Long, Optional<User>> idLookups;
+    private final SingleFlight<String, Optional<User>> usernameLookups;
     
-    public UserService(UserRepository userRepository, ValidationService validationService) {
+    public UserService(UserRepository userRepository, ValidationService validationService,
+                       UserServiceProperties properties, UserCache userCache,
+                       UserResponseCache userResponseCache, EntityManager entityManager,
+                       UserOutbox userOutbox, UserExistenceFilter existenceFilter,
+                       MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
         this.validationService = validationService;
+        this.properties = properties;
+        this.userCache = userCache;
+        this.userResponseCache = userResponseCache;
+        this.entityManager = entityManager;
+        this.userOutbox = userOutbox;
+        this.existenceFilter = existenceFilter;
+        this.idLookups = new SingleFlight<>("id", meterRegistry);
+        this.usernameLookups = new SingleFlight<>("username", meterRegistry);
     }
     
     /**
      * Retrieves a user by ID.
+     * Served from the user cache when enabled, and concurrent misses for the same
+     * ID share a single query; the returned user must not be modified.
      */
+    @Transactional
     public User getUserById(Long id) {
         validationService.validateUserId(id);
         
-        return userRepository.findById(id)
-                .orElseThrow(() -> new UserNotFoundException(id));
+        User user = userCache.getById(id,
+                key -> idLookups.execute(key, () -> userRepository.loadById(key)).orElse(null));
+        if (user == null) {
+            throw new UserNotFoundException(id);
+        }
+        return user;
     }
     
     /**
      * Retrieves a user by username.
+     * Served from the user cache when enabled, and concurrent misses for the same
+     * username share a single query; the returned user must not be modified.
      */
+    @Transactional
     public User getUserByUsername(String username) {
         validationService.validateUsername(username);
         
-        return userRepository.findUserByUsername(username.trim())
-                .orElseThrow(() -> new UserNotFoundException(username, true));
+        User user = userCache.getByUsername(username.trim(),
+                key -> usernameLookups.execute(key, () -> userRepository.loadByUsername(key)).orElse(null));
+        if (user == null) {
+            throw new UserNotFoundException(username, true);
+        }
+        return user;
+    }
+    
+    /**
+     * Retrieves a user by ID as a gRPC message.
+     * A response cache hit skips both the entity load and the mapping.
+     */
+    @Transactional
+    public inpt.aseds.userservice.infrastructure.grpc.User getUserMessageById(Long id) {
+        validationService.validateUserId(id);
+        
+        return userResponseCache.get(id, key -> UserMappers.toGrpcUser(getUserById(key)));
+    }
+    
+    /**
+     * Retrieves a user by username as a gRPC message.
+     * The user is resolved through the user cache and its message is shared with
+     * {@link #getUserMessageById(Long)}.
+     */
+    @Transactional
+    public inpt.aseds.userservice.infrastructure.grpc.User getUserMessageByUsername(String username) {
+        User user = getUserByUsername(username);
+        
+        return userResponseCache.get(user.getId(), key -> UserMappers.toGrpcUser(user));
+    }
+    
+    /**
+     * Retrieves several users by ID in as few queries as possible.
+     * Duplicate IDs are collapsed and the IN-list is split into chunks of
+     * app.user.batch.chunk-size. The returned map follows the order in which
+     * IDs were first requested and only contains the users that were found.
+     */
+    public Map<Long, User> getUsersByIds(Collection<Long> ids) {
+        validationService.validateBatchIds(ids);
+        
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        int chunkSize = Math.max(1, properties.getBatch().getChunkSize());
+        
+        Map<Long, User> found = new HashMap<>(distinctIds.size() * 2);
+        try {
+            for (int from = 0; from < distinctIds.size(); from += chunkSize) {
+                List<Long> chunk = distinctIds.subList(from, Math.min(from + chunkSize, distinctIds.size()));
+                for (User user : userRepository.findByIdIn(chunk)) {
+                    found.put(user.getId(), user);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to batch load {} users", distinctIds.size(), e);
+            throw new UserOperationException("batch-get", "Failed to retrieve users");
+        }
+        
+        Map<Long, User> ordered = new LinkedHashMap<>(found.size() * 2);
+        for (Long id : distinctIds) {
+            User user = found.get(id);
+            if (user != null) {
+                ordered.put(id, user);
+            }
+        }
+        return ordered;
     }
     
     /**
      * Updates an existing user.
      */
+    @Transactional
     public User updateUser(Long id, User updates) {
+        return updateUser(id, updates, null);
+    }
+    
+    /**
+     * Updates user information in a single conditional UPDATE ... RETURNING.
+     * Username and email uniqueness is enforced by the table's unique constraints,
+     * and when {@code expectedVersion} is given the update only applies if nobody
+     * else has written the user since that version.
+     */
+    @Transactional
+    public User updateUser(Long id, User updates, Long expectedVersion) {
         validationService.validateUserId(id);
         
-        User existingUser = getUserById(id);
-        
-        // Validate and apply updates
+        User changes = new User();
         if (StringUtils.hasText(updates.getUsername())) {
             validationService.validateUsername(updates.getUsername());
-            
-            // Check if username is already taken by another user
-            Optional<User> userWithSameUsername = userRepository.findUserByUsername(updates.getUsername().trim());
-            if (userWithSameUsername.isPresent() && !userWithSameUsername.get().getId().equals(id)) {
-                throw new UserOperationException("update", "Username is already taken");
-            }
-            
-            existingUser.setUsername(updates.getUsername().trim());
+            changes.setUsername(updates.getUsername().trim());
         }
         
         if (StringUtils.hasText(updates.getEmail())) {
             validationService.validateEmail(updates.getEmail());
-            
-            // Check if email is already taken by another user
-            Optional<User> userWithSameEmail = userRepository.findByEmail(updates.getEmail().trim());
-            if (userWithSameEmail.isPresent() && !userWithSameEmail.get().getId().equals(id)) {
-                throw new UserOperationException("update", "Email is already taken");
-            }
-            
-            existingUser.setEmail(updates.getEmail().trim());
+            changes.setEmail(updates.getEmail().trim());
         }
         
         if (StringUtils.hasText(updates.getBio())) {
             validationService.validateBio(updates.getBio());
-            existingUser.setBio(updates.getBio().trim());
+            changes.setBio(updates.getBio().trim());
         }
         
         if (StringUtils.hasText(updates.getAvatarUrl())) {
-            existingUser.setAvatarUrl(updates.getAvatarUrl().trim());
+            changes.setAvatarUrl(updates.getAvatarUrl().trim());
         }
         
         if (StringUtils.hasText(updates.getChannelId())) {
-            existingUser.setChannelId(updates.getChannelId().trim());
+            changes.setChannelId(updates.getChannelId().trim());
         }
+
+        if (changes.getUsername() == null && changes.getEmail() == null && changes.getBio() == null
+                && changes.getAvatarUrl() == null && changes.getChannelId() == null) {
+            // Nothing to write: no version bump, event or eviction that would invalidate other clients' versions
+            User current = findUserForWrite(id);
+            if (expectedVersion != null && current.getVersion() != expectedVersion) {
+                throw new UserConflictException(id, expectedVersion);
+            }
+            return current;
+        }
+
+        // Added before the UPDATE so a check racing the commit falls through to the database
+        existenceFilter.add(changes.getUsername(), changes.getEmail());
         
+        Optional<User> updated;
         try {
-            User savedUser = userRepository.save(existingUser);
-            log.info("User updated successfully: {}", savedUser.getId());
-            return savedUser;
+            updated = userRepository.updateProfile(id, changes, expectedVersion);
+        } catch (DataIntegrityViolationException e) {
+            throw translateUniqueViolation(e);
         } catch (Exception e) {
             log.error("Failed to update user with ID: {}", id, e);
             throw new UserOperationException("update", "Failed to update user");
         }
+        
+        if (updated.isEmpty()) {
+            // Only the failure path pays for telling a missing user from a stale version
+            if (expectedVersion != null && userRepository.existsById(id)) {
+                throw new UserConflictException(id, expectedVersion);
+            }
+            throw new UserNotFoundException(id);
+        }
+        
+        User savedUser = updated.get();
+        userOutbox.record(UserChangedEvent.Type.USER_UPDATED, savedUser);
+        // A stale username mapping is rejected by the cache, so evicting by ID is enough
+        evictCaches(id, savedUser.getUsername());
+        log.info("User updated successfully: {}", savedUser.getId());
+        return savedUser;
     }
     
     /**
      * Deactivates a user (soft delete).
      */
+    @Transactional
     public void deactivateUser(Long id) {
         validationService.validateUserId(id);
         
-        User user = getUserById(id);
+        User user = findUserForWrite(id);
         
         if (!user.isActive()) {
             throw new UserOperationException("deactivate", "User is already deactivated");
@@ -120,6 +279,8 @@ public class UserService {
         
         try {
             userRepository.save(user);
+            userOutbox.record(UserChangedEvent.Type.USER_DEACTIVATED, user);
+            evictCaches(id, user.getUsername());
             log.info("User deactivated successfully: {}", id);
         } catch (Exception e) {
             log.error("Failed to deactivate user with ID: {}", id, e);
@@ -130,13 +291,16 @@ public class UserService {
     /**
      * Hard deletes a user from the system.
      */
+    @Transactional
     public void deleteUser(Long id) {
         validationService.validateUserId(id);
         
-        User user = getUserById(id);
+        User user = findUserForWrite(id);
         
         try {
             userRepository.delete(user);
+            userOutbox.record(UserChangedEvent.Type.USER_DELETED, user);
+            evictCaches(id, user.getUsername());
             log.info("User deleted successfully: {}", id);
         } catch (Exception e) {
             log.error("Failed to delete user with ID: {}", id, e);
@@ -159,28 +323,173 @@ public class UserService {
     }
     
     /**
-     * Searches users by username with pagination.
+     * Searches active users by username with pagination.
+     * Results are ranked exact match, then prefix, then infix.
      */
     public Page<User> searchUsers(String query, Pageable pageable) {
         validationService.validateSearchQuery(query);
         validationService.validatePagination(pageable.getPageNumber(), pageable.getPageSize());
         
         try {
-            return userRepository.searchUsersByUsername(query.trim(), pageable);
+            String trimmedQuery = query.trim();
+            String escapedQuery = escapeLikePattern(trimmedQuery);
+            return userRepository.searchActiveUsersByUsername(
+                    trimmedQuery, "%" + escapedQuery + "%", escapedQuery + "%", pageable);
         } catch (Exception e) {
             log.error("Failed to search users with query: {}", query, e);
             throw new UserOperationException("search", "Failed to search users");
         }
     }
     
+    /**
+     * Lists active users ordered by ID. Without a page token the page number is
+     * used and totals are always returned; with a page token the page is read
+     * after the cursor, at the same cost for any depth, and totals are only
+     * counted when requested.
+     */
+    public UserSlice listActiveUsers(int page, int size, String pageToken, boolean includeTotal) {
+        return listActiveUsers(page, size, pageToken, includeTotal, UserField.ALL);
+    }
+    
+    /**
+     * Lists active users like {@link #listActiveUsers(int, int, String, boolean)}.
+     * When the requested fields are within {@link UserField#SUMMARY} only those
+     * columns are read, and the other fields of the returned users are unset.
+     */
+    public UserSlice listActiveUsers(int page, int size, String pageToken, boolean includeTotal,
+                                     Set<UserField> fields) {
+        boolean summary = UserField.SUMMARY.containsAll(fields);
+        if (!StringUtils.hasText(pageToken)) {
+            validationService.validatePagination(page, size);
+            Page<User> userPage = summary
+                    ? getAllUserSummaries(PageRequest.of(page, size))
+                    : getAllUsers(PageRequest.of(page, size));
+            String nextPageToken = userPage.hasNext()
+                    ? PageToken.afterId(lastOf(userPage.getContent()).getId()).encode()
+                    : "";
+            return new UserSlice(userPage.getContent(), nextPageToken,
+                    userPage.getTotalPages(), userPage.getTotalElements());
+        }
+        
+        validationService.validatePagination(0, size);
+        PageToken cursor = PageToken.decode(pageToken);
+        
+        try {
+            List<User> rows = summary
+                    ? fromSummaries(userRepository.findActiveUserSummariesAfter(cursor.lastId(), Limit.of(size + 1)))
+                    : userRepository.findActiveUsersAfter(cursor.lastId(), Limit.of(size + 1));
+            List<User> users = rows.size() > size ? rows.subList(0, size) : rows;
+            String nextPageToken = rows.size() > size
+                    ? PageToken.afterId(lastOf(users).getId()).encode()
+                    : "";
+            long total = includeTotal ? userRepository.countActiveUsers() : 0;
+            return new UserSlice(users, nextPageToken, totalPages(total, size), total);
+        } catch (Exception e) {
+            log.error("Failed to retrieve users after cursor", e);
+            throw new UserOperationException("list", "Failed to retrieve users");
+        }
+    }
+    
+    /**
+     * Searches active users by username, paged like {@link #listActiveUsers}.
+     * Cursors are bound to the query they were issued for.
+     */
+    public UserSlice searchActiveUsers(String query, int page, int size, String pageToken, boolean includeTotal) {
+        return searchActiveUsers(query, page, size, pageToken, includeTotal, UserField.ALL);
+    }
+    
+    /**
+     * Searches active users like {@link #searchActiveUsers(String, int, int, String, boolean)},
+     * reading only the summary columns when the requested fields allow it.
+     */
+    public UserSlice searchActiveUsers(String query, int page, int size, String pageToken, boolean includeTotal,
+                                       Set<UserField> fields) {
+        boolean summary = UserField.SUMMARY.containsAll(fields);
+        if (!StringUtils.hasText(pageToken)) {
+            validationService.validatePagination(page, size);
+            Page<User> userPage = summary
+                    ? searchUserSummaries(query, PageRequest.of(page, size))
+                    : searchUsers(query, PageRequest.of(page, size));
+            String nextPageToken = "";
+            if (userPage.hasNext()) {
+                User last = lastOf(userPage.getContent());
+                nextPageToken = PageToken.afterSearchResult(query.trim(), last.getUsername(), last.getId()).encode();
+            }
+            return new UserSlice(userPage.getContent(), nextPageToken,
+                    userPage.getTotalPages(), userPage.getTotalElements());
+        }
+        
+        validationService.validateSearchQuery(query);
+        validationService.validatePagination(0, size);
+        String trimmedQuery = query.trim();
+        PageToken cursor = PageToken.decode(pageToken);
+        if (cursor.queryHash() != trimmedQuery.hashCode()) {
+            throw new UserValidationException("page_token", "Page token does not match the search query");
+        }
+        
+        try {
+            String escapedQuery = escapeLikePattern(trimmedQuery);
+            String pattern = "%" + escapedQuery + "%";
+            List<User> rows = summary
+                    ? fromSummaries(userRepository.searchActiveUserSummariesByUsernameAfter(
+                            trimmedQuery, pattern, escapedQuery + "%",
+                            cursor.rank(), cursor.length(), cursor.lastId(), size + 1))
+                    : userRepository.searchActiveUsersByUsernameAfter(
+                            trimmedQuery, pattern, escapedQuery + "%",
+                            cursor.rank(), cursor.length(), cursor.lastId(), size + 1);
+            List<User> users = rows.size() > size ? rows.subList(0, size) : rows;
+            String nextPageToken = "";
+            if (rows.size() > size) {
+                User last = lastOf(users);
+                nextPageToken = PageToken.afterSearchResult(trimmedQuery, last.getUsername(), last.getId()).encode();
+            }
+            long total = includeTotal ? userRepository.countActiveUsersByUsername(pattern) : 0;
+            return new UserSlice(users, nextPageToken, totalPages(total, size), total);
+        } catch (Exception e) {
+            log.error("Failed to search users after cursor with query: {}", query, e);
+            throw new UserOperationException("search", "Failed to search users");
+        }
+    }
+    
+    /**
+     * Streams users ordered by ID to the given sink from a database cursor,
+     * optionally only active users and only users updated since an instant.
+     * Each user is detached once handed to the sink, so memory stays flat
+     * regardless of the number of users; the sink may block for flow control.
+     *
+     * @return the number of exported users
+     */
+    public long exportUsers(boolean activeOnly, Date updatedSince, Consumer<User> sink) {
+        long exported = 0;
+        try (Stream<User> users = userRepository.streamUsers(
+                activeOnly, updatedSince != null, updatedSince != null ? updatedSince : new Date(0))) {
+            for (User user : (Iterable<User>) users::iterator) {
+                sink.accept(user);
+                entityManager.detach(user);
+                exported++;
+            }
+        }
+        return exported;
+    }
+    
     /**
      * Checks if a username exists in the system.
+     * Usernames the existence filter has never seen are answered without a query
+     * while the filter is up to date.
      */
     public boolean usernameExists(String username) {
         validationService.validateUsername(username);
         
+        String trimmed = username.trim();
+        if (!existenceFilter.mightContainUsername(trimmed)) {
+            return false;
+        }
         try {
-            return userRepository.existsByUsername(username.trim());
+            boolean exists = userRepository.existsByUsername(trimmed);
+            if (!exists) {
+                existenceFilter.recordUsernameFalsePositive();
+            }
+            return exists;
         } catch (Exception e) {
             log.error("Failed to check username existence: {}", username, e);
             throw new UserOperationException("check", "Failed to check username availability");
@@ -189,15 +498,138 @@ public class UserService {
     
     /**
      * Checks if an email exists in the system.
+     * Emails the existence filter has never seen are answered without a query
+     * while the filter is up to date.
      */
     public boolean emailExists(String email) {
         validationService.validateEmail(email);
         
+        String trimmed = email.trim();
+        if (!existenceFilter.mightContainEmail(trimmed)) {
+            return false;
+        }
         try {
-            return userRepository.existsByEmail(email.trim());
+            boolean exists = userRepository.existsByEmail(trimmed);
+            if (!exists) {
+                existenceFilter.recordEmailFalsePositive();
+            }
+            return exists;
         } catch (Exception e) {
             log.error("Failed to check email existence: {}", email, e);
             throw new UserOperationException("check", "Failed to check email availability");
         }
     }
+    
+    private Page<User> getAllUserSummaries(Pageable pageable) {
+        try {
+            return userRepository.findAllActiveUserSummaries(pageable).map(UserService::fromSummary);
+        } catch (Exception e) {
+            log.error("Failed to retrieve users", e);
+            throw new UserOperationException("list", "Failed to retrieve users");
+        }
+    }
+    
+    private Page<User> searchUserSummaries(String query, Pageable pageable) {
+        validationService.validateSearchQuery(query);
+        
+        try {
+            String trimmedQuery = query.trim();
+            String escapedQuery = escapeLikePattern(trimmedQuery);
+            return userRepository.searchActiveUserSummariesByUsername(
+                    trimmedQuery, "%" + escapedQuery + "%", escapedQuery + "%", pageable)
+                    .map(UserService::fromSummary);
+        } catch (Exception e) {
+            log.error("Failed to search users with query: {}", query, e);
+            throw new UserOperationException("search", "Failed to search users");
+        }
+    }
+    
+    /**
+     * Builds a transient user holding only the summary columns.
+     */
+    private static User fromSummary(UserSummary summary) {
+        User user = new User();
+        user.setId(summary.getId());
+        user.setUsername(summary.getUsername());
+        user.setAvatarUrl(summary.getAvatarUrl());
+        return user;
+    }
+    
+    private static List<User> fromSummaries(List<UserSummary> summaries) {
+        List<User> users = new ArrayList<>(summaries.size());
+        for (UserSummary summary : summaries) {
+            users.add(fromSummary(summary));
+        }
+        return users;
+    }
+    
+    /**
+     * Loads the managed entity for a write, bypassing the user cache.
+     */
+    private User findUserForWrite(Long id) {
+        return userRepository.findById(id)
+                .orElseThrow(() -> new UserNotFoundException(id));
+    }
+    
+    private static User lastOf(List<User> users) {
+        return users.get(users.size() - 1);
+    }
+    
+    private static int totalPages(long totalElements, int size) {
+        return (int) ((totalElements + size - 1) / size);
+    }
+    
+    /**
+     * Escapes LIKE wildcards with backslash, PostgreSQL's default LIKE escape
+     * character, so that underscores in usernames match literally.
+     */
+    private static String escapeLikePattern(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '%' || c == '_') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+    
+    private UserOperationException translateUniqueViolation(DataIntegrityViolationException e) {
+        String field = violatedUniqueField(e);
+        if ("username".equals(field)) {
+            return new UserOperationException("update", "Username is already taken");
+        }
+        if ("email".equals(field)) {
+            return new UserOperationException("update", "Email is already taken");
+        }
+        log.error("Unexpected constraint violation during update", e);
+        return new UserOperationException("update", "Failed to update user");
+    }
+    
+    /**
+     * Returns "username" or "email" when the exception is a violation of that
+     * column's unique constraint, or null otherwise.
+     */
+    static String violatedUniqueField(DataIntegrityViolationException e) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation
+                ? violation.getConstraintName() : null;
+        String message = String.valueOf(e.getMostSpecificCause().getMessage());
+        
+        if (User.USERNAME_CONSTRAINT.equalsIgnoreCase(constraint) || message.contains("(username)")) {
+            return "username";
+        }
+        if (User.EMAIL_CONSTRAINT.equalsIgnoreCase(constraint) || message.contains("(email)")) {
+            return "email";
+        }
+        return null;
+    }
+    
+    /**
+     * Evicts a user from the entity and response caches.
+     */
+    private void evictCaches(Long id, String... usernames) {
+        userCache.evict(id, usernames);
+        userResponseCache.evict(id);
+    }
 }
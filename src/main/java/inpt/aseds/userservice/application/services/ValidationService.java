@@ -5,17 +5,24 @@ import inpt.aseds.userservice.domain.exceptions.UserValidationException;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.util.Collection;
+
 /**
  * Service for validating user inputs and operations.
  * Uses configuration properties from application.yaml for validation rules.
+ *
+ * The validators run on every read RPC, so the rules are read from the properties
+ * once at startup, formats are checked by scanning characters instead of regular
+ * expressions, and each rejection is a preallocated UserValidationException that
+ * is rethrown as is.
  */
 @Service
 public class ValidationService {
     
-    private final UserServiceProperties properties;
+    private final Rules rules;
     
     public ValidationService(UserServiceProperties properties) {
-        this.properties = properties;
+        this.rules = new Rules(properties);
     }
     
     /**
@@ -23,14 +30,13 @@ public class ValidationService {
      */
     public void validatePagination(int page, int size) {
         if (page < 0) {
-            throw new UserValidationException("page", "Page number cannot be negative");
+            throw rules.pageNegative;
         }
         if (size <= 0) {
-            throw new UserValidationException("size", "Page size must be positive");
+            throw rules.sizeNotPositive;
         }
-        if (size > properties.getPagination().getMaxPageSize()) {
-            throw new UserValidationException("size", 
-                "Page size cannot exceed " + properties.getPagination().getMaxPageSize());
+        if (size > rules.maxPageSize) {
+            throw rules.sizeTooLarge;
         }
     }
     
@@ -39,11 +45,10 @@ public class ValidationService {
      */
     public void validateSearchQuery(String query) {
         if (!StringUtils.hasText(query)) {
-            throw new UserValidationException("query", "Search query cannot be empty");
+            throw rules.queryEmpty;
         }
-        if (query.trim().length() < properties.getValidation().getSearch().getMinQueryLength()) {
-            throw new UserValidationException("query",
-                "Search query must be at least " + properties.getValidation().getSearch().getMinQueryLength() + " characters long");
+        if (trimmedLength(query) < rules.minQueryLength) {
+            throw rules.queryTooShort;
         }
     }
     
@@ -52,39 +57,39 @@ public class ValidationService {
      */
     public void validateUsername(String username) {
         if (!StringUtils.hasText(username)) {
-            throw new UserValidationException("username", "Username cannot be empty");
+            throw rules.usernameEmpty;
         }
         
-        String trimmedUsername = username.trim();
-        if (trimmedUsername.length() < properties.getValidation().getUsername().getMinLength()) {
-            throw new UserValidationException("username", 
-                "Username must be at least " + properties.getValidation().getUsername().getMinLength() + " characters");
+        int start = trimStart(username);
+        int end = trimEnd(username, start);
+        
+        int length = end - start;
+        if (length < rules.usernameMinLength) {
+            throw rules.usernameTooShort;
         }
-        if (trimmedUsername.length() > properties.getValidation().getUsername().getMaxLength()) {
-            throw new UserValidationException("username", 
-                "Username cannot exceed " + properties.getValidation().getUsername().getMaxLength() + " characters");
+        if (length > rules.usernameMaxLength) {
+            throw rules.usernameTooLong;
         }
         
         // Basic username validation - alphanumeric and underscores only
-        if (!trimmedUsername.matches("^[a-zA-Z0-9_]+$")) {
-            throw new UserValidationException("username", 
-                "Username can only contain letters, numbers, and underscores");
+        for (int i = start; i < end; i++) {
+            if (!isUsernameChar(username.charAt(i))) {
+                throw rules.usernameInvalidChars;
+            }
         }
     }
     
     /**
      * Validates email format and length.
+     * Accepts the same addresses as ^[A-Za-z0-9+_.-]+@([A-Za-z0-9.-]+\.[A-Za-z]{2,})$
      */
     public void validateEmail(String email) {
         if (StringUtils.hasText(email)) {
-            if (email.length() > properties.getValidation().getEmail().getMaxLength()) {
-                throw new UserValidationException("email", 
-                    "Email cannot exceed " + properties.getValidation().getEmail().getMaxLength() + " characters");
+            if (email.length() > rules.emailMaxLength) {
+                throw rules.emailTooLong;
             }
-            
-            String emailRegex = "^[A-Za-z0-9+_.-]+@([A-Za-z0-9.-]+\\.[A-Za-z]{2,})$";
-            if (!email.matches(emailRegex)) {
-                throw new UserValidationException("email", "Invalid email format");
+            if (!isEmail(email)) {
+                throw rules.emailInvalid;
             }
         }
     }
@@ -93,9 +98,47 @@ public class ValidationService {
      * Validates bio length.
      */
     public void validateBio(String bio) {
-        if (StringUtils.hasText(bio) && bio.length() > properties.getValidation().getBio().getMaxLength()) {
-            throw new UserValidationException("bio", 
-                "Bio cannot exceed " + properties.getValidation().getBio().getMaxLength() + " characters");
+        if (bio != null && bio.length() > rules.bioMaxLength && StringUtils.hasText(bio)) {
+            throw rules.bioTooLong;
+        }
+    }
+    
+    /**
+     * Validates the IDs of a batch lookup.
+     */
+    public void validateBatchIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw rules.idsEmpty;
+        }
+        if (ids.size() > rules.batchMaxSize) {
+            throw rules.idsTooMany;
+        }
+        for (Long id : ids) {
+            validateUserId(id);
+        }
+    }
+    
+    /**
+     * Validates a batch of channel IDs.
+     */
+    public void validateChannelIds(Collection<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw rules.channelIdsEmpty;
+        }
+        if (ids.size() > rules.batchMaxSize) {
+            throw rules.idsTooMany;
+        }
+        for (String id : ids) {
+            validateChannelId(id);
+        }
+    }
+    
+    /**
+     * Validates channel ID.
+     */
+    public void validateChannelId(String channelId) {
+        if (!StringUtils.hasText(channelId)) {
+            throw rules.channelIdEmpty;
         }
     }
     
@@ -104,7 +147,138 @@ public class ValidationService {
      */
     public void validateUserId(Long userId) {
         if (userId == null || userId <= 0) {
-            throw new UserValidationException("id", "User ID must be a positive number");
+            throw rules.idInvalid;
+        }
+    }
+    
+    private static boolean isEmail(String email) {
+        int at = email.indexOf('@');
+        if (at <= 0) {
+            return false;
+        }
+        for (int i = 0; i < at; i++) {
+            char c = email.charAt(i);
+            if (!isAsciiLetterOrDigit(c) && c != '+' && c != '_' && c != '.' && c != '-') {
+                return false;
+            }
+        }
+        
+        // The top-level domain is everything after the last dot: letters only, at least two
+        int lastDot = email.lastIndexOf('.');
+        if (lastDot <= at + 1 || email.length() - lastDot - 1 < 2) {
+            return false;
+        }
+        for (int i = at + 1; i < lastDot; i++) {
+            char c = email.charAt(i);
+            if (!isAsciiLetterOrDigit(c) && c != '.' && c != '-') {
+                return false;
+            }
+        }
+        for (int i = lastDot + 1; i < email.length(); i++) {
+            if (!isAsciiLetter(email.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static boolean isUsernameChar(char c) {
+        return isAsciiLetterOrDigit(c) || c == '_';
+    }
+    
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return isAsciiLetter(c) || (c >= '0' && c <= '9');
+    }
+    
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+    
+    // Same boundaries as String.trim(), without the copy
+    private static int trimStart(String value) {
+        int start = 0;
+        while (start < value.length() && value.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+    
+    private static int trimEnd(String value, int start) {
+        int end = value.length();
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+    
+    private static int trimmedLength(String value) {
+        int start = trimStart(value);
+        return trimEnd(value, start) - start;
+    }
+    
+    /**
+     * Limits and rejections derived from one read of the properties.
+     */
+    private static final class Rules {
+        
+        private final int maxPageSize;
+        private final int minQueryLength;
+        private final int usernameMinLength;
+        private final int usernameMaxLength;
+        private final int emailMaxLength;
+        private final int bioMaxLength;
+        private final int batchMaxSize;
+        
+        private final UserValidationException pageNegative;
+        private final UserValidationException sizeNotPositive;
+        private final UserValidationException sizeTooLarge;
+        private final UserValidationException queryEmpty;
+        private final UserValidationException queryTooShort;
+        private final UserValidationException usernameEmpty;
+        private final UserValidationException usernameTooShort;
+        private final UserValidationException usernameTooLong;
+        private final UserValidationException usernameInvalidChars;
+        private final UserValidationException emailTooLong;
+        private final UserValidationException emailInvalid;
+        private final UserValidationException bioTooLong;
+        private final UserValidationException idsEmpty;
+        private final UserValidationException idsTooMany;
+        private final UserValidationException idInvalid;
+        private final UserValidationException channelIdsEmpty;
+        private final UserValidationException channelIdEmpty;
+        
+        private Rules(UserServiceProperties properties) {
+            UserServiceProperties.Validation validation = properties.getValidation();
+            maxPageSize = properties.getPagination().getMaxPageSize();
+            minQueryLength = validation.getSearch().getMinQueryLength();
+            usernameMinLength = validation.getUsername().getMinLength();
+            usernameMaxLength = validation.getUsername().getMaxLength();
+            emailMaxLength = validation.getEmail().getMaxLength();
+            bioMaxLength = validation.getBio().getMaxLength();
+            batchMaxSize = properties.getBatch().getMaxSize();
+            
+            pageNegative = new UserValidationException("page", "Page number cannot be negative");
+            sizeNotPositive = new UserValidationException("size", "Page size must be positive");
+            sizeTooLarge = new UserValidationException("size", "Page size cannot exceed " + maxPageSize);
+            queryEmpty = new UserValidationException("query", "Search query cannot be empty");
+            queryTooShort = new UserValidationException("query",
+                "Search query must be at least " + minQueryLength + " characters long");
+            usernameEmpty = new UserValidationException("username", "Username cannot be empty");
+            usernameTooShort = new UserValidationException("username",
+                "Username must be at least " + usernameMinLength + " characters");
+            usernameTooLong = new UserValidationException("username",
+                "Username cannot exceed " + usernameMaxLength + " characters");
+            usernameInvalidChars = new UserValidationException("username",
+                "Username can only contain letters, numbers, and underscores");
+            emailTooLong = new UserValidationException("email",
+                "Email cannot exceed " + emailMaxLength + " characters");
+            emailInvalid = new UserValidationException("email", "Invalid email format");
+            bioTooLong = new UserValidationException("bio", "Bio cannot exceed " + bioMaxLength + " characters");
+            idsEmpty = new UserValidationException("ids", "At least one user ID is required");
+            idsTooMany = new UserValidationException("ids", "Batch size cannot exceed " + batchMaxSize);
+            idInvalid = new UserValidationException("id", "User ID must be a positive number");
+            channelIdsEmpty = new UserValidationException("ids", "At least one channel ID is required");
+            channelIdEmpty = new UserValidationException("id", "Channel ID cannot be empty");
         }
     }
 }
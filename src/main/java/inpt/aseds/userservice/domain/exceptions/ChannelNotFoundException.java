@@ -0,0 +1,19 @@
+package inpt.aseds.userservice.domain.exceptions;
+
+/**
+ * Exception thrown when a channel is not found in the system.
+ * It is an expected outcome, so it carries no stack trace.
+ */
+public class ChannelNotFoundException extends RuntimeException {
+    
+    private final String channelId;
+    
+    public ChannelNotFoundException(String channelId) {
+        super("Channel not found with ID: " + channelId, null, false, false);
+        this.channelId = channelId;
+    }
+    
+    public String getChannelId() {
+        return channelId;
+    }
+}
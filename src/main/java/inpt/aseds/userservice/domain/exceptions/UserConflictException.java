@@ -0,0 +1,25 @@
+package inpt.aseds.userservice.domain.exceptions;
+
+/**
+ * Exception thrown when a write is based on a stale version of a user.
+ * This exception is safe to expose to clients; they should re-read and retry.
+ */
+public class UserConflictException extends RuntimeException {
+    
+    private final Long userId;
+    private final Long expectedVersion;
+    
+    public UserConflictException(Long userId, Long expectedVersion) {
+        super("User " + userId + " was modified concurrently; expected version " + expectedVersion);
+        this.userId = userId;
+        this.expectedVersion = expectedVersion;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public Long getExpectedVersion() {
+        return expectedVersion;
+    }
+}
@@ -3,23 +3,24 @@ package inpt.aseds.userservice.domain.exceptions;
 /**
  * Exception thrown when a user is not found in the system.
  * This exception is safe to expose to clients as it doesn't leak sensitive information.
+ * It is an expected outcome, so it carries no stack trace.
  */
 public class UserNotFoundException extends RuntimeException {
     
     private final String userIdentifier;
     
     public UserNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
         this.userIdentifier = null;
     }
     
     public UserNotFoundException(Long userId) {
-        super("User not found with ID: " + userId);
+        super("User not found with ID: " + userId, null, false, false);
         this.userIdentifier = userId.toString();
     }
     
     public UserNotFoundException(String username, boolean isUsername) {
-        super("User not found with username: " + username);
+        super("User not found with username: " + username, null, false, false);
         this.userIdentifier = username;
     }
     
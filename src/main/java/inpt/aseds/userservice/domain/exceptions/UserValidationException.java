@@ -3,18 +3,20 @@ package inpt.aseds.userservice.domain.exceptions;
 /**
  * Exception thrown when validation fails for user input.
  * This exception is safe to expose to clients.
+ * It is an expected outcome, so it carries no stack trace and instances with a
+ * fixed message can be preallocated and rethrown.
  */
 public class UserValidationException extends RuntimeException {
     
     private final String field;
     
     public UserValidationException(String message) {
-        super(message);
+        super(message, null, false, false);
         this.field = null;
     }
     
     public UserValidationException(String field, String message) {
-        super(message);
+        super(message, null, false, false);
         this.field = field;
     }
     
@@ -0,0 +1,140 @@
+package inpt.aseds.userservice.domain.grpcImpl;
+
+import inpt.aseds.userservice.application.mappers.ChannelMappers;
+import inpt.aseds.userservice.application.services.ChannelService;
+import inpt.aseds.userservice.domain.exceptions.ChannelNotFoundException;
+import inpt.aseds.userservice.domain.exceptions.UserOperationException;
+import inpt.aseds.userservice.domain.exceptions.UserValidationException;
+import inpt.aseds.userservice.infrastructure.grpc.*;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.grpc.server.service.GrpcService;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * gRPC service implementation for channel operations.
+ * Handles protocol buffer conversion and delegates business logic to ChannelService.
+ */
+@GrpcService
+public class GrpcChannelServiceImp extends ChannelServiceGrpc.ChannelServiceImplBase {
+
+    private static final Logger log = LoggerFactory.getLogger(GrpcChannelServiceImp.class);
+
+    private final ChannelService channelService;
+
+    public GrpcChannelServiceImp(ChannelService channelService) {
+        this.channelService = channelService;
+    }
+
+    @Override
+    public void getChannel(GetChannelRequest request, StreamObserver<Channel> responseObserver) {
+        try {
+            Channel response = ChannelMappers.toGrpcChannel(channelService.getChannelById(request.getId()));
+
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+
+        } catch (ChannelNotFoundException e) {
+            log.warn("Channel not found: {}", e.getMessage());
+            responseObserver.onError(Status.NOT_FOUND
+                    .withDescription(e.getMessage())
+                    .asRuntimeException());
+        } catch (UserValidationException e) {
+            log.warn("Validation error: {}", e.getMessage());
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription(e.getMessage())
+                    .asRuntimeException());
+        } catch (Exception e) {
+            log.error("Unexpected error getting channel with ID: {}", request.getId(), e);
+            responseObserver.onError(Status.INTERNAL
+                    .withDescription("Internal server error")
+                    .asRuntimeException());
+        }
+    }
+
+    @Override
+    public void batchGetChannels(BatchGetChannelsRequest request, StreamObserver<BatchGetChannelsResponse> responseObserver) {
+        try {
+            Map<String, inpt.aseds.userservice.domain.model.Channel> channels =
+                    channelService.getChannelsByIds(request.getIdsList());
+            Set<String> requestedIds = new LinkedHashSet<>(request.getIdsList());
+            BatchGetChannelsResponse response = ChannelMappers.toBatchGetChannelsResponse(requestedIds, channels);
+
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+
+        } catch (UserValidationException e) {
+            log.warn("Validation error during channel batch get: {}", e.getMessage());
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription(e.getMessage())
+                    .asRuntimeException());
+        } catch (UserOperationException e) {
+            log.warn("Operation error during channel batch get: {}", e.getMessage());
+            responseObserver.onError(Status.FAILED_PRECONDITION
+                    .withDescription(e.getMessage())
+                    .asRuntimeException());
+        } catch (Exception e) {
+            log.error("Unexpected error batch getting {} channels", request.getIdsCount(), e);
+            responseObserver.onError(Status.INTERNAL
+                    .withDescription("Internal server error")
+                    .asRuntimeException());
+        }
+    }
+
+    @Override
+    public void listLiveChannels(ListLiveChannelsRequest request, StreamObserver<ListLiveChannelsResponse> responseObserver) {
+        try {
+            ListLiveChannelsResponse response = channelService.listLiveChannels(request.getSize(), request.getPageToken());
+
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+
+        } catch (UserValidationException e) {
+            log.warn("Validation error during list live channels: {}", e.getMessage());
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription(e.getMessage())
+                    .asRuntimeException());
+        } catch (Exception e) {
+            log.error("Unexpected error listing live channels", e);
+            responseObserver.onError(Status.INTERNAL
+                    .withDescription("Internal server error")
+                    .asRuntimeException());
+        }
+    }
+
+    @Override
+    public void setChannelLive(SetChannelLiveRequest request, StreamObserver<Channel> responseObserver) {
+        try {
+            Channel response = channelService.setLive(request.getId(), request.getIsLive());
+
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+
+        } catch (ChannelNotFoundException e) {
+            log.warn("Channel not found for live status update: {}", e.getMessage());
+            responseObserver.onError(Status.NOT_FOUND
+                    .withDescription(e.getMessage())
+                    .asRuntimeException());
+        } catch (UserValidationException e) {
+            log.warn("Validation error during live status update: {}", e.getMessage());
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription(e.getMessage())
+                    .asRuntimeException());
+        } catch (UserOperationException e) {
+            log.warn("Operation error during live status update: {}", e.getMessage());
+            responseObserver.onError(Status.FAILED_PRECONDITION
+                    .withDescription(e.getMessage())
+                    .asRuntimeException());
+        } catch (Exception e) {
+            log.error("Unexpected error setting live status of channel: {}", request.getId(), e);
+            responseObserver.onError(Status.INTERNAL
+                    .withDescription("Internal server error")
+                    .asRuntimeException());
+        }
+    }
+}
@@ -1,20 +1,27 @@
 package inpt.aseds.userservice.domain.grpcImpl;
 
 import com.google.protobuf.Empty;
+import inpt.aseds.userservice.application.dto.UserField;
+import inpt.aseds.userservice.application.dto.UserSlice;
 import inpt.aseds.userservice.application.mappers.UserMappers;
+import inpt.aseds.userservice.application.services.UserProfileService;
 import inpt.aseds.userservice.application.services.UserService;
+import inpt.aseds.userservice.domain.exceptions.UserConflictException;
 import inpt.aseds.userservice.domain.exceptions.UserNotFoundException;
 import inpt.aseds.userservice.domain.exceptions.UserOperationException;
 import inpt.aseds.userservice.domain.exceptions.UserValidationException;
 import inpt.aseds.userservice.infrastructure.grpc.*;
 import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.grpc.server.service.GrpcService;
 
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * gRPC service implementation for user operations.
  * Handles protocol buffer conversion and delegates business logic to UserService.
@@ -25,18 +32,23 @@ public class GrpcUserServiceImp extends UserServiceGrpc.UserServiceImplBase {
     private static final Logger log = LoggerFactory.getLogger(GrpcUserServiceImp.class);
     
     private final UserService userService;
+    private final UserExporter userExporter;
+    private final UserImporter userImporter;
+    private final UserProfileService userProfileService;
     
-    public GrpcUserServiceImp(UserService userService) {
+    public GrpcUserServiceImp(UserService userService, UserExporter userExporter,
+                              UserImporter userImporter, UserProfileService userProfileService) {
         this.userService = userService;
+        this.userExporter = userExporter;
+        this.userImporter = userImporter;
+        this.userProfileService = userProfileService;
     }
 
     @Override
     public void getUser(GetUserRequest request, StreamObserver<User> responseObserver) {
         try {
-            log.debug("Getting user with ID: {}", request.getId());
-            
-            inpt.aseds.userservice.domain.model.User user = userService.getUserById(request.getId());
-            User response = UserMappers.toGrpcUser(user);
+            Set<UserField> fields = UserMappers.toUserFields(request.getReadMask());
+            User response = UserMappers.mask(userService.getUserMessageById(request.getId()), fields);
             
             responseObserver.onNext(response);
             responseObserver.onCompleted();
@@ -62,10 +74,7 @@ public class GrpcUserServiceImp extends UserServiceGrpc.UserServiceImplBase {
     @Override
     public void getUserByUsername(GetUserByUsernameRequest request, StreamObserver<User> responseObserver) {
         try {
-            log.debug("Getting user with username: {}", request.getUsername());
-            
-            inpt.aseds.userservice.domain.model.User user = userService.getUserByUsername(request.getUsername());
-            User response = UserMappers.toGrpcUser(user);
+            User response = userService.getUserMessageByUsername(request.getUsername());
             
             responseObserver.onNext(response);
             responseObserver.onCompleted();
@@ -94,7 +103,8 @@ public class GrpcUserServiceImp extends UserServiceGrpc.UserServiceImplBase {
             log.debug("Updating user with ID: {}", request.getId());
             
             inpt.aseds.userservice.domain.model.User updates = createUserFromUpdateRequest(request);
-            inpt.aseds.userservice.domain.model.User updatedUser = userService.updateUser(request.getId(), updates);
+            Long expectedVersion = request.hasExpectedVersion() ? request.getExpectedVersion().getValue() : null;
+            inpt.aseds.userservice.domain.model.User updatedUser = userService.updateUser(request.getId(), updates, expectedVersion);
             User response = UserMappers.toGrpcUser(updatedUser);
             
             responseObserver.onNext(response);
@@ -110,6 +120,11 @@ public class GrpcUserServiceImp extends UserServiceGrpc.UserServiceImplBase {
             responseObserver.onError(Status.INVALID_ARGUMENT
                     .withDescription(e.getMessage())
                     .asRuntimeException());
+        } catch (UserConflictException e) {
+            log.warn("Conflicting update: {}", e.getMessage());
+            responseObserver.onError(Status.ABORTED
+                    .withDescription(e.getMessage())
+                    .asRuntimeException());
         } catch (UserOperationException e) {
             log.warn("Operation error during update: {}", e.getMessage());
             responseObserver.onError(Status.ALREADY_EXISTS
@@ -159,16 +174,10 @@ public class GrpcUserServiceImp extends UserServiceGrpc.UserServiceImplBase {
     @Override
     public void listUsers(ListUsersRequest request, StreamObserver<ListUsersResponse> responseObserver) {
         try {
-            log.debug("Listing users - page: {}, size: {}", request.getPage(), request.getSize());
-            
-            PageRequest pageable = PageRequest.of(request.getPage(), request.getSize());
-            Page<inpt.aseds.userservice.domain.model.User> userPage = userService.getAllUsers(pageable);
-            
-            ListUsersResponse response = UserMappers.toListUsersResponse(
-                    userPage.getContent(),
-                    userPage.getTotalPages(),
-                    userPage.getTotalElements()
-            );
+            Set<UserField> fields = UserMappers.toUserFields(request.getReadMask());
+            UserSlice slice = userService.listActiveUsers(
+                    request.getPage(), request.getSize(), request.getPageToken(), request.getIncludeTotal(), fields);
+            ListUsersResponse response = UserMappers.toListUsersResponse(slice, fields);
             
             responseObserver.onNext(response);
             responseObserver.onCompleted();
@@ -194,18 +203,10 @@ public class GrpcUserServiceImp extends UserServiceGrpc.UserServiceImplBase {
     @Override
     public void searchUsers(SearchUsersRequest request, StreamObserver<ListUsersResponse> responseObserver) {
         try {
-            log.debug("Searching users with query: {}, page: {}, size: {}", 
-                     request.getQuery(), request.getPage(), request.getSize());
-            
-            PageRequest pageable = PageRequest.of(request.getPage(), request.getSize());
-            Page<inpt.aseds.userservice.domain.model.User> userPage = 
-                    userService.searchUsers(request.getQuery(), pageable);
-            
-            ListUsersResponse response = UserMappers.toListUsersResponse(
-                    userPage.getContent(),
-                    userPage.getTotalPages(),
-                    userPage.getTotalElements()
-            );
+            Set<UserField> fields = UserMappers.toUserFields(request.getReadMask());
+            UserSlice slice = userService.searchActiveUsers(request.getQuery(),
+                    request.getPage(), request.getSize(), request.getPageToken(), request.getIncludeTotal(), fields);
+            ListUsersResponse response = UserMappers.toListUsersResponse(slice, fields);
             
             responseObserver.onNext(response);
             responseObserver.onCompleted();
@@ -231,8 +232,6 @@ public class GrpcUserServiceImp extends UserServiceGrpc.UserServiceImplBase {
     @Override
     public void checkUsernameExists(CheckUsernameRequest request, StreamObserver<CheckUsernameResponse> responseObserver) {
         try {
-            log.debug("Checking username existence: {}", request.getUsername());
-            
             boolean exists = userService.usernameExists(request.getUsername());
             CheckUsernameResponse response = CheckUsernameResponse.newBuilder()
                     .setExists(exists)
@@ -292,6 +291,133 @@ public class GrpcUserServiceImp extends UserServiceGrpc.UserServiceImplBase {
         }
     }
     
+    @Override
+    public void batchGetUsers(BatchGetUsersRequest request, StreamObserver<BatchGetUsersResponse> responseObserver) {
+        try {
+            Map<Long, inpt.aseds.userservice.domain.model.User> users = userService.getUsersByIds(request.getIdsList());
+            Set<Long> requestedIds = new LinkedHashSet<>(request.getIdsList());
+            BatchGetUsersResponse response = UserMappers.toBatchGetUsersResponse(requestedIds, users);
+            
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+            
+        } catch (UserValidationException e) {
+            log.warn("Validation error during batch get: {}", e.getMessage());
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription(e.getMessage())
+                    .asRuntimeException());
+        } catch (UserOperationException e) {
+            log.warn("Operation error during batch get: {}", e.getMessage());
+            responseObserver.onError(Status.FAILED_PRECONDITION
+                    .withDescription(e.getMessage())
+                    .asRuntimeException());
+        } catch (Exception e) {
+            log.error("Unexpected error batch getting {} users", request.getIdsCount(), e);
+            responseObserver.onError(Status.INTERNAL
+                    .withDescription("Internal server error")
+                    .asRuntimeException());
+        }
+    }
+    
+    @Override
+    public void exportUsers(ExportUsersRequest request, StreamObserver<User> responseObserver) {
+        log.debug("Exporting users - active only: {}, updated since: {}",
+                 request.getActiveOnly(), request.hasUpdatedSince() ? request.getUpdatedSince().getSeconds() : null);
+        
+        userExporter.export(request, (ServerCallStreamObserver<User>) responseObserver);
+    }
+    
+    @Override
+    public StreamObserver<ImportUserRecord> importUsers(StreamObserver<ImportUsersResponse> responseObserver) {
+        log.debug("Importing users");
+        
+        return userImporter.start(responseObserver);
+    }
+    
+    @Override
+    public void getUserProfile(GetUserRequest request, StreamObserver<UserProfile> responseObserver) {
+        try {
+            UserProfile response = userProfileService.getProfile(request.getId());
+            
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+            
+        } catch (UserNotFoundException e) {
+            log.warn("User not found: {}", e.getMessage());
+            responseObserver.onError(Status.NOT_FOUND
+                    .withDescription(e.getMessage())
+                    .asRuntimeException());
+        } catch (UserValidationException e) {
+            log.warn("Validation error: {}", e.getMessage());
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription(e.getMessage())
+                    .asRuntimeException());
+        } catch (UserOperationException e) {
+            log.warn("Operation error during profile get: {}", e.getMessage());
+            responseObserver.onError(Status.FAILED_PRECONDITION
+                    .withDescription(e.getMessage())
+                    .asRuntimeException());
+        } catch (Exception e) {
+            log.error("Unexpected error getting profile of user with ID: {}", request.getId(), e);
+            responseObserver.onError(Status.INTERNAL
+                    .withDescription("Internal server error")
+                    .asRuntimeException());
+        }
+    }
+    
+    @Override
+    public void batchGetUserProfiles(BatchGetUsersRequest request, StreamObserver<BatchGetUserProfilesResponse> responseObserver) {
+        try {
+            BatchGetUserProfilesResponse response = userProfileService.getProfilesByIds(request.getIdsList());
+            
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+            
+        } catch (UserValidationException e) {
+            log.warn("Validation error during profile batch get: {}", e.getMessage());
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription(e.getMessage())
+                    .asRuntimeException());
+        } catch (UserOperationException e) {
+            log.warn("Operation error during profile batch get: {}", e.getMessage());
+            responseObserver.onError(Status.FAILED_PRECONDITION
+                    .withDescription(e.getMessage())
+                    .asRuntimeException());
+        } catch (Exception e) {
+            log.error("Unexpected error batch getting {} profiles", request.getIdsCount(), e);
+            responseObserver.onError(Status.INTERNAL
+                    .withDescription("Internal server error")
+                    .asRuntimeException());
+        }
+    }
+    
+    @Override
+    public void listUserProfiles(ListUsersRequest request, StreamObserver<ListUserProfilesResponse> responseObserver) {
+        try {
+            ListUserProfilesResponse response = userProfileService.listActiveProfiles(
+                    request.getPage(), request.getSize(), request.getPageToken(), request.getIncludeTotal());
+            
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+            
+        } catch (UserValidationException e) {
+            log.warn("Validation error during list profiles: {}", e.getMessage());
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription(e.getMessage())
+                    .asRuntimeException());
+        } catch (UserOperationException e) {
+            log.warn("Operation error during list profiles: {}", e.getMessage());
+            responseObserver.onError(Status.FAILED_PRECONDITION
+                    .withDescription(e.getMessage())
+                    .asRuntimeException());
+        } catch (Exception e) {
+            log.error("Unexpected error listing profiles", e);
+            responseObserver.onError(Status.INTERNAL
+                    .withDescription("Internal server error")
+                    .asRuntimeException());
+        }
+    }
+    
     /**
      * Creates a User domain object from gRPC UpdateUserRequest.
      * Safely extracts StringValue fields to prevent toString() issues.
@@ -0,0 +1,142 @@
+package inpt.aseds.userservice.domain.grpcImpl;
+
+import inpt.aseds.userservice.application.config.UserServiceProperties;
+import inpt.aseds.userservice.application.mappers.UserMappers;
+import inpt.aseds.userservice.application.services.UserService;
+import inpt.aseds.userservice.infrastructure.grpc.ExportUsersRequest;
+import inpt.aseds.userservice.infrastructure.grpc.User;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs ExportUsers streams on a dedicated pool bounded by
+ * app.user.export.max-concurrent-exports.
+ *
+ * The export runs off the gRPC call thread so that onReady and onCancel
+ * callbacks can be delivered while it waits; each message is only sent once
+ * the transport reports the stream as ready, so a slow consumer pauses the
+ * database cursor instead of buffering users in memory.
+ */
+@Component
+public class UserExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(UserExporter.class);
+
+    private final UserService userService;
+    private final ExecutorService executor;
+
+    public UserExporter(UserService userService, UserServiceProperties properties) {
+        this.userService = userService;
+        int maxConcurrentExports = Math.max(1, properties.getExport().getMaxConcurrentExports());
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(maxConcurrentExports, maxConcurrentExports,
+                60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "user-export-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Starts streaming users to the observer and returns immediately.
+     */
+    public void export(ExportUsersRequest request, ServerCallStreamObserver<User> responseObserver) {
+        ReadySignal readySignal = new ReadySignal(responseObserver);
+        Date updatedSince = request.hasUpdatedSince()
+                ? new Date(request.getUpdatedSince().getSeconds() * 1000 + request.getUpdatedSince().getNanos() / 1_000_000)
+                : null;
+
+        try {
+            executor.execute(() -> run(request.getActiveOnly(), updatedSince, responseObserver, readySignal));
+        } catch (RejectedExecutionException e) {
+            log.warn("Rejecting export, {} exports already running", ((ThreadPoolExecutor) executor).getActiveCount());
+            responseObserver.onError(Status.RESOURCE_EXHAUSTED
+                    .withDescription("Too many concurrent exports")
+                    .asRuntimeException());
+        }
+    }
+
+    private void run(boolean activeOnly, Date updatedSince, ServerCallStreamObserver<User> responseObserver,
+                     ReadySignal readySignal) {
+        try {
+            long exported = userService.exportUsers(activeOnly, updatedSince, user -> {
+                readySignal.await();
+                responseObserver.onNext(UserMappers.toGrpcUser(user));
+            });
+            responseObserver.onCompleted();
+            log.info("Exported {} users", exported);
+        } catch (StatusRuntimeException e) {
+            log.info("Export stopped: {}", e.getStatus());
+        } catch (Exception e) {
+            log.error("Unexpected error exporting users", e);
+            if (!readySignal.isCancelled()) {
+                responseObserver.onError(Status.INTERNAL
+                        .withDescription("Internal server error")
+                        .asRuntimeException());
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Blocks the exporting thread until the call is ready for more messages.
+     */
+    private static final class ReadySignal {
+
+        private final ServerCallStreamObserver<User> observer;
+        private final Object lock = new Object();
+        private volatile boolean cancelled;
+
+        ReadySignal(ServerCallStreamObserver<User> observer) {
+            this.observer = observer;
+            observer.setOnReadyHandler(this::signal);
+            observer.setOnCancelHandler(() -> {
+                cancelled = true;
+                signal();
+            });
+        }
+
+        boolean isCancelled() {
+            return cancelled;
+        }
+
+        void await() {
+            synchronized (lock) {
+                while (!observer.isReady() && !cancelled) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw Status.CANCELLED.withDescription("Export interrupted").asRuntimeException();
+                    }
+                }
+            }
+            if (cancelled) {
+                throw Status.CANCELLED.withDescription("Export cancelled by client").asRuntimeException();
+            }
+        }
+
+        private void signal() {
+            synchronized (lock) {
+                lock.notifyAll();
+            }
+        }
+    }
+}
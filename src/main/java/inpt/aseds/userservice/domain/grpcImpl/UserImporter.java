@@ -0,0 +1,144 @@
+package inpt.aseds.userservice.domain.grpcImpl;
+
+import inpt.aseds.userservice.application.config.UserServiceProperties;
+import inpt.aseds.userservice.application.dto.ImportSummary;
+import inpt.aseds.userservice.application.mappers.UserMappers;
+import inpt.aseds.userservice.application.services.UserImportService;
+import inpt.aseds.userservice.infrastructure.grpc.ImportUserRecord;
+import inpt.aseds.userservice.infrastructure.grpc.ImportUsersResponse;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs ImportUsers streams, at most app.user.import.max-concurrent-imports at
+ * a time.
+ *
+ * Records are written on the gRPC call thread as batches fill up. The next
+ * message is only requested once the previous one has been handled, so a
+ * client sending faster than the database absorbs the batches is held back by
+ * transport flow control rather than buffered in memory.
+ */
+@Component
+public class UserImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImporter.class);
+
+    private final UserImportService userImportService;
+    private final Semaphore permits;
+
+    public UserImporter(UserImportService userImportService, UserServiceProperties properties) {
+        this.userImportService = userImportService;
+        this.permits = new Semaphore(Math.max(1, properties.getImport().getMaxConcurrentImports()));
+    }
+
+    /**
+     * Starts an import answering on the given observer and returns the observer
+     * that receives its records.
+     */
+    public StreamObserver<ImportUserRecord> start(StreamObserver<ImportUsersResponse> responseObserver) {
+        if (!permits.tryAcquire()) {
+            log.warn("Rejecting import, too many imports already running");
+            responseObserver.onError(Status.RESOURCE_EXHAUSTED
+                    .withDescription("Too many concurrent imports")
+                    .asRuntimeException());
+            return new Discarding();
+        }
+        return new Import(userImportService.startImport(), responseObserver);
+    }
+
+    /**
+     * Receives the records of one import; gRPC delivers its callbacks one at a time.
+     */
+    private final class Import implements StreamObserver<ImportUserRecord> {
+
+        private final UserImportService.UserImport userImport;
+        private final StreamObserver<ImportUsersResponse> responseObserver;
+        private boolean finished;
+
+        Import(UserImportService.UserImport userImport, StreamObserver<ImportUsersResponse> responseObserver) {
+            this.userImport = userImport;
+            this.responseObserver = responseObserver;
+        }
+
+        @Override
+        public void onNext(ImportUserRecord record) {
+            if (finished) {
+                return;
+            }
+            try {
+                userImport.add(UserMappers.toDomainUser(record));
+            } catch (Exception e) {
+                abort(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (finish()) {
+                log.info("Import stopped by client after {} records: {}", userImport.received(), Status.fromThrowable(t));
+            }
+        }
+
+        @Override
+        public void onCompleted() {
+            if (finished) {
+                return;
+            }
+            try {
+                ImportSummary summary = userImport.finish();
+                finish();
+                responseObserver.onNext(UserMappers.toImportUsersResponse(summary));
+                responseObserver.onCompleted();
+                log.info("Imported {} users in {} ms: {} created, {} updated, {} unchanged, {} failed",
+                        summary.received(), summary.elapsedMillis(), summary.created(),
+                        summary.updated(), summary.unchanged(), summary.failed());
+            } catch (Exception e) {
+                abort(e);
+            }
+        }
+
+        private void abort(Exception e) {
+            if (finish()) {
+                log.error("Import aborted after {} records", userImport.received(), e);
+                responseObserver.onError(Status.INTERNAL
+                        .withDescription("Import aborted after " + userImport.received() + " records")
+                        .asRuntimeException());
+            }
+        }
+
+        /**
+         * Releases the permit the first time it is called.
+         */
+        private boolean finish() {
+            if (finished) {
+                return false;
+            }
+            finished = true;
+            permits.release();
+            return true;
+        }
+    }
+
+    /**
+     * Ignores the records of a rejected import.
+     */
+    private static final class Discarding implements StreamObserver<ImportUserRecord> {
+
+        @Override
+        public void onNext(ImportUserRecord record) {
+        }
+
+        @Override
+        public void onError(Throwable t) {
+        }
+
+        @Override
+        public void onCompleted() {
+        }
+    }
+}
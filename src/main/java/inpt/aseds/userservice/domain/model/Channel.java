@@ -3,9 +3,12 @@ package inpt.aseds.userservice.domain.model;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.Date;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "channels")
 @Table(name = "channels") @Getter @Setter
 public class Channel {
 
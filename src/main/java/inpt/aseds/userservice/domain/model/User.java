@@ -4,18 +4,32 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.validator.constraints.URL;
 import java.util.Date;
 
 @Entity
-@Table(name = "user_table")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "users-by-username")
+@Table(name = "user_table", uniqueConstraints = {
+        @UniqueConstraint(name = User.USERNAME_CONSTRAINT, columnNames = "username"),
+        @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email")
+})
 public class User{
+
+    public static final String USERNAME_CONSTRAINT = "uk_user_username";
+    public static final String EMAIL_CONSTRAINT = "uk_user_email";
+
    @Id
    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @NotBlank(message = "Username cannot be blank")
     @Size(min = 3, max = 100, message = "Username must be between 3 and 100 characters")
+    @NaturalId(mutable = true)
     @Column(name = "username", nullable = false, length = 100)
     private String username;
 
@@ -33,7 +47,7 @@ public class User{
 
     @Email(message = "Email must be valid")
     @NotBlank(message = "Email cannot be blank")
-    @Column(name = "email", nullable = false, unique = true, length = 100)
+    @Column(name = "email", nullable = false, length = 100)
     private String email;
 
     @Column(name = "created_at")
@@ -47,6 +61,11 @@ public class User{
     @Column(name = "is_active")
     private boolean isActive = true;
 
+    // Bumped on every write; the default lets ddl-auto add it to existing tables
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint not null default 0")
+    private long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = new Date();
@@ -130,4 +149,12 @@ public class User{
     public void setActive(boolean isActive) {
         this.isActive = isActive;
     }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
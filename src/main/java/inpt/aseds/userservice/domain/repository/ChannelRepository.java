@@ -0,0 +1,18 @@
+package inpt.aseds.userservice.domain.repository;
+
+import inpt.aseds.userservice.domain.model.Channel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface ChannelRepository extends JpaRepository<Channel, String> {
+    
+    List<Channel> findByIdIn(List<String> ids);
+    
+    /**
+     * Loads every live channel, backed by the partial index in db/channels.sql.
+     */
+    @Query("SELECT c FROM Channel c WHERE c.isLive = true")
+    List<Channel> findLiveChannels();
+}
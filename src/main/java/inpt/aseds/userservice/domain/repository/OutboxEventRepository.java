@@ -0,0 +1,51 @@
+package inpt.aseds.userservice.domain.repository;
+
+import inpt.aseds.userservice.domain.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Advisory lock key taken by the relaying instance.
+     */
+    long RELAY_LOCK = 0x6f7574626f78L;
+
+    /**
+     * Takes the relay lock until the current transaction ends, or returns
+     * false at once if another instance holds it. Only the holder relays, so
+     * batches are published strictly one after another across instances and
+     * events of one user never overtake each other.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(" + RELAY_LOCK + ")", nativeQuery = true)
+    boolean tryLockRelay();
+
+    /**
+     * Locks the oldest pending events. Call it holding the relay lock.
+     */
+    @Query(value = "SELECT * FROM user_outbox ORDER BY id LIMIT :limit FOR UPDATE",
+            nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+
+    @Query("SELECT min(e.createdAt) FROM OutboxEvent e")
+    Date findOldestCreatedAt();
+
+    /**
+     * Inserts one event per array element in a single statement; the arrays
+     * must have the same length.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_outbox (user_id, event_type, payload, created_at) "
+            + "SELECT e.user_id, e.event_type, e.payload, LOCALTIMESTAMP "
+            + "FROM unnest(CAST(:userIds AS bigint[]), CAST(:eventTypes AS varchar[]), CAST(:payloads AS text[])) "
+            + "AS e(user_id, event_type, payload)",
+            nativeQuery = true)
+    int insertAll(@Param("userIds") Long[] userIds,
+                  @Param("eventTypes") String[] eventTypes,
+                  @Param("payloads") String[] payloads);
+}
@@ -1,18 +1,24 @@
 package inpt.aseds.userservice.domain.repository;
 
 import inpt.aseds.userservice.domain.model.User;
+import jakarta.persistence.QueryHint;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     
     Optional<User> findUserByUsername(
         @NotBlank(message = "Username cannot be blank") 
@@ -20,20 +26,166 @@ public interface UserRepository extends JpaRepository<User, Long> {
         String username
     );
 
-    @Query("SELECT u FROM User u WHERE u.username LIKE %:query% AND u.isActive = true")
-    Page<User> searchUsersByUsername(
-        @Param("query") String query, 
+    /**
+     * Searches active users whose username contains the given text, ranked
+     * exact match first, then prefix matches, then infix matches, shorter
+     * usernames first within a rank. The LIKE predicate is served by the
+     * trigram index from db/user-search.sql. The ranking and the page count
+     * still visit every match, so a fragment common to many usernames costs
+     * about as much as a scan; the keyset variants below skip the count.
+     *
+     * @param query   the raw search text, used for the exact-match rank
+     * @param pattern the escaped infix pattern, e.g. {@code %abc%}
+     * @param prefix  the escaped prefix pattern, e.g. {@code abc%}
+     */
+    @Query(value = "SELECT u.* FROM user_table u "
+            + "WHERE u.is_active = true AND u.username LIKE :pattern "
+            + "ORDER BY CASE WHEN u.username = :query THEN 0 "
+            + "WHEN u.username LIKE :prefix THEN 1 ELSE 2 END, "
+            + "length(u.username), u.id",
+            countQuery = "SELECT count(*) FROM user_table u "
+            + "WHERE u.is_active = true AND u.username LIKE :pattern",
+            nativeQuery = true)
+    Page<User> searchActiveUsersByUsername(
+        @Param("query") String query,
+        @Param("pattern") String pattern,
+        @Param("prefix") String prefix,
         Pageable pageable
     );
     
-    @Query("SELECT u FROM User u WHERE u.isActive = true")
+    /**
+     * Keyset page of {@link #searchActiveUsersByUsername} results that sort after
+     * the given (rank, username length, id) cursor. No count query is issued.
+     */
+    @Query(value = "SELECT u.* FROM user_table u "
+            + "WHERE u.is_active = true AND u.username LIKE :pattern "
+            + "AND (CASE WHEN u.username = :query THEN 0 WHEN u.username LIKE :prefix THEN 1 ELSE 2 END, "
+            + "length(u.username), u.id) > (:afterRank, :afterLength, :afterId) "
+            + "ORDER BY CASE WHEN u.username = :query THEN 0 "
+            + "WHEN u.username LIKE :prefix THEN 1 ELSE 2 END, "
+            + "length(u.username), u.id "
+            + "LIMIT :limit",
+            nativeQuery = true)
+    List<User> searchActiveUsersByUsernameAfter(
+        @Param("query") String query,
+        @Param("pattern") String pattern,
+        @Param("prefix") String prefix,
+        @Param("afterRank") int afterRank,
+        @Param("afterLength") int afterLength,
+        @Param("afterId") long afterId,
+        @Param("limit") int limit
+    );
+    
+    @Query(value = "SELECT count(*) FROM user_table u WHERE u.is_active = true AND u.username LIKE :pattern",
+            nativeQuery = true)
+    long countActiveUsersByUsername(@Param("pattern") String pattern);
+    
+    /**
+     * {@link #searchActiveUsersByUsername} reading only the summary columns.
+     */
+    @Query(value = "SELECT u.id AS id, u.username AS username, u.avatar_url AS avatarUrl FROM user_table u "
+            + "WHERE u.is_active = true AND u.username LIKE :pattern "
+            + "ORDER BY CASE WHEN u.username = :query THEN 0 "
+            + "WHEN u.username LIKE :prefix THEN 1 ELSE 2 END, "
+            + "length(u.username), u.id",
+            countQuery = "SELECT count(*) FROM user_table u "
+            + "WHERE u.is_active = true AND u.username LIKE :pattern",
+            nativeQuery = true)
+    Page<UserSummary> searchActiveUserSummariesByUsername(
+        @Param("query") String query,
+        @Param("pattern") String pattern,
+        @Param("prefix") String prefix,
+        Pageable pageable
+    );
+    
+    /**
+     * {@link #searchActiveUsersByUsernameAfter} reading only the summary columns.
+     */
+    @Query(value = "SELECT u.id AS id, u.username AS username, u.avatar_url AS avatarUrl FROM user_table u "
+            + "WHERE u.is_active = true AND u.username LIKE :pattern "
+            + "AND (CASE WHEN u.username = :query THEN 0 WHEN u.username LIKE :prefix THEN 1 ELSE 2 END, "
+            + "length(u.username), u.id) > (:afterRank, :afterLength, :afterId) "
+            + "ORDER BY CASE WHEN u.username = :query THEN 0 "
+            + "WHEN u.username LIKE :prefix THEN 1 ELSE 2 END, "
+            + "length(u.username), u.id "
+            + "LIMIT :limit",
+            nativeQuery = true)
+    List<UserSummary> searchActiveUserSummariesByUsernameAfter(
+        @Param("query") String query,
+        @Param("pattern") String pattern,
+        @Param("prefix") String prefix,
+        @Param("afterRank") int afterRank,
+        @Param("afterLength") int afterLength,
+        @Param("afterId") long afterId,
+        @Param("limit") int limit
+    );
+    
+    @Query("SELECT u FROM User u WHERE u.isActive = true ORDER BY u.id")
     Page<User> findAllActiveUsers(Pageable pageable);
     
+    /**
+     * Keyset page of active users with an ID greater than the cursor, ordered by ID.
+     * Served by the primary key index; no count query is issued.
+     */
+    @Query("SELECT u FROM User u WHERE u.isActive = true AND u.id > :afterId ORDER BY u.id")
+    List<User> findActiveUsersAfter(@Param("afterId") long afterId, Limit limit);
+    
+    @Query(value = "SELECT u.id AS id, u.username AS username, u.avatarUrl AS avatarUrl "
+            + "FROM User u WHERE u.isActive = true ORDER BY u.id",
+            countQuery = "SELECT count(u) FROM User u WHERE u.isActive = true")
+    Page<UserSummary> findAllActiveUserSummaries(Pageable pageable);
+    
+    @Query("SELECT u.id AS id, u.username AS username, u.avatarUrl AS avatarUrl "
+            + "FROM User u WHERE u.isActive = true AND u.id > :afterId ORDER BY u.id")
+    List<UserSummary> findActiveUserSummariesAfter(@Param("afterId") long afterId, Limit limit);
+    
+    @Query("SELECT count(u) FROM User u WHERE u.isActive = true")
+    long countActiveUsers();
+    
+    /**
+     * Streams users ordered by ID from a server-side cursor. Must be consumed
+     * inside a transaction and closed afterwards; entities are loaded read-only.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM User u "
+            + "WHERE (:activeOnly = false OR u.isActive = true) "
+            + "AND (:filterUpdated = false OR u.updatedAt >= :updatedSince) "
+            + "ORDER BY u.id")
+    Stream<User> streamUsers(
+        @Param("activeOnly") boolean activeOnly,
+        @Param("filterUpdated") boolean filterUpdated,
+        @Param("updatedSince") Date updatedSince
+    );
+    
+    /**
+     * Streams every username and email from a server-side cursor, for building
+     * the existence filter. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("SELECT u.username, u.email FROM User u")
+    Stream<Object[]> streamUsernamesAndEmails();
+    
+    /**
+     * Streams the username, email and updated_at of users updated at or after
+     * the given time, for keeping the existence filter current between
+     * rebuilds. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("SELECT u.username, u.email, u.updatedAt FROM User u WHERE u.updatedAt >= :since")
+    Stream<Object[]> streamUsernamesAndEmailsUpdatedSince(@Param("since") Date since);
+    
+    // Cacheable queries are only served from the query cache when the l2cache profile is active
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(String email);
     
     List<User> findByIdIn(List<Long> ids);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByUsername(String username);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByEmail(String email);
 }
\ No newline at end of file
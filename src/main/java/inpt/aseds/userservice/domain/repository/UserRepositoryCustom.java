@@ -0,0 +1,40 @@
+package inpt.aseds.userservice.domain.repository;
+
+import inpt.aseds.userservice.domain.model.User;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Writes the non-null profile fields of {@code changes} to the user in a single
+     * UPDATE ... RETURNING, bumping the version and update time.
+     * When {@code expectedVersion} is given the row is only updated if its version
+     * still matches. Empty if no row was updated.
+     */
+    Optional<User> updateProfile(Long id, User changes, Long expectedVersion);
+
+    /**
+     * Loads a user by ID as a read-only entity, which keeps no snapshot for
+     * dirty checking, served from the entity cache when the second-level cache
+     * is enabled.
+     */
+    Optional<User> loadById(Long id);
+
+    /**
+     * Loads a user by its username natural id as a read-only entity, served
+     * from the natural-id and entity caches when the second-level cache is enabled.
+     */
+    Optional<User> loadByUsername(String username);
+
+    /**
+     * Inserts the users, or updates the existing user with the same username,
+     * in one INSERT ... ON CONFLICT statement. Email is overwritten and bio,
+     * avatar URL and channel ID only when non-null; rows whose values would not
+     * change are left alone. Usernames must be distinct.
+     *
+     * @return the inserted and updated users, not managed; inserted ones have version 0
+     */
+    List<User> upsertAll(List<User> users);
+}
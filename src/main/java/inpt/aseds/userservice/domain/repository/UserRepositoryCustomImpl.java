@@ -0,0 +1,175 @@
+package inpt.aseds.userservice.domain.repository;
+
+import inpt.aseds.userservice.domain.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.query.NativeQuery;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private static final String[] USER_TABLE_SPACES = {"user_table"};
+    
+    private static final String UPSERT_SQL = "INSERT INTO user_table "
+            + "(username, email, bio, avatar_url, channel_id, is_active, created_at, updated_at, version) "
+            + "SELECT r.username, r.email, r.bio, r.avatar_url, r.channel_id, true, LOCALTIMESTAMP, LOCALTIMESTAMP, 0 "
+            + "FROM unnest(CAST(:usernames AS varchar[]), CAST(:emails AS varchar[]), CAST(:bios AS varchar[]), "
+            + "CAST(:avatarUrls AS varchar[]), CAST(:channelIds AS varchar[])) "
+            + "AS r(username, email, bio, avatar_url, channel_id) "
+            + "ON CONFLICT (username) DO UPDATE SET "
+            + "email = EXCLUDED.email, "
+            + "bio = COALESCE(EXCLUDED.bio, user_table.bio), "
+            + "avatar_url = COALESCE(EXCLUDED.avatar_url, user_table.avatar_url), "
+            + "channel_id = COALESCE(EXCLUDED.channel_id, user_table.channel_id), "
+            + "updated_at = EXCLUDED.updated_at, "
+            + "version = user_table.version + 1 "
+            + "WHERE user_table.email IS DISTINCT FROM EXCLUDED.email "
+            + "OR COALESCE(EXCLUDED.bio, user_table.bio) IS DISTINCT FROM user_table.bio "
+            + "OR COALESCE(EXCLUDED.avatar_url, user_table.avatar_url) IS DISTINCT FROM user_table.avatar_url "
+            + "OR COALESCE(EXCLUDED.channel_id, user_table.channel_id) IS DISTINCT FROM user_table.channel_id "
+            + "RETURNING id, username, email, bio, avatar_url, channel_id, is_active, version";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<User> updateProfile(Long id, User changes, Long expectedVersion) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        putIfPresent(columns, "username", changes.getUsername());
+        putIfPresent(columns, "email", changes.getEmail());
+        putIfPresent(columns, "bio", changes.getBio());
+        putIfPresent(columns, "avatar_url", changes.getAvatarUrl());
+        putIfPresent(columns, "channel_id", changes.getChannelId());
+        columns.put("updated_at", new Date());
+
+        StringBuilder sql = new StringBuilder("UPDATE user_table SET ");
+        columns.keySet().forEach(column -> sql.append(column).append(" = :").append(column).append(", "));
+        sql.append("version = version + 1 WHERE id = :id");
+        if (expectedVersion != null) {
+            sql.append(" AND version = :expectedVersion");
+        }
+        sql.append(" RETURNING *");
+
+        NativeQuery<?> query = entityManager.createNativeQuery(sql.toString(), User.class)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(User.class);
+        columns.forEach(query::setParameter);
+        query.setParameter("id", id);
+        if (expectedVersion != null) {
+            query.setParameter("expectedVersion", expectedVersion);
+        }
+
+        List<?> rows = query.getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        invalidateCachedUsers(List.of(id), changes.getUsername() != null);
+        return Optional.of((User) rows.get(0));
+    }
+
+    @Override
+    public List<User> upsertAll(List<User> users) {
+        int size = users.size();
+        String[] usernames = new String[size];
+        String[] emails = new String[size];
+        String[] bios = new String[size];
+        String[] avatarUrls = new String[size];
+        String[] channelIds = new String[size];
+        for (int i = 0; i < size; i++) {
+            User user = users.get(i);
+            usernames[i] = user.getUsername();
+            emails[i] = user.getEmail();
+            bios[i] = user.getBio();
+            avatarUrls[i] = user.getAvatarUrl();
+            channelIds[i] = user.getChannelId();
+        }
+
+        List<?> rows = entityManager.createNativeQuery(UPSERT_SQL)
+                .setParameter("usernames", usernames)
+                .setParameter("emails", emails)
+                .setParameter("bios", bios)
+                .setParameter("avatarUrls", avatarUrls)
+                .setParameter("channelIds", channelIds)
+                .getResultList();
+
+        List<User> written = new ArrayList<>(rows.size());
+        List<Long> updatedIds = new ArrayList<>();
+        for (Object row : rows) {
+            Object[] columns = (Object[]) row;
+            User user = new User();
+            user.setId(((Number) columns[0]).longValue());
+            user.setUsername((String) columns[1]);
+            user.setEmail((String) columns[2]);
+            user.setBio((String) columns[3]);
+            user.setAvatarUrl((String) columns[4]);
+            user.setChannelId((String) columns[5]);
+            user.setActive((Boolean) columns[6]);
+            user.setVersion(((Number) columns[7]).longValue());
+            written.add(user);
+            if (user.getVersion() > 0) {
+                updatedIds.add(user.getId());
+            }
+        }
+        invalidateCachedUsers(updatedIds, false);
+        return written;
+    }
+
+    @Override
+    public Optional<User> loadById(Long id) {
+        return entityManager.unwrap(Session.class)
+                .byId(User.class)
+                .withReadOnly(true)
+                .loadOptional(id);
+    }
+
+    @Override
+    public Optional<User> loadByUsername(String username) {
+        Session session = entityManager.unwrap(Session.class);
+        // Natural-id loads have no read-only option of their own
+        boolean defaultReadOnly = session.isDefaultReadOnly();
+        session.setDefaultReadOnly(true);
+        try {
+            return session.bySimpleNaturalId(User.class).loadOptional(username);
+        } finally {
+            session.setDefaultReadOnly(defaultReadOnly);
+        }
+    }
+
+    /**
+     * Native writes bypass Hibernate's second-level cache bookkeeping, so drop
+     * the users' entries and mark the table's cached queries stale, now and
+     * again once the transaction completes. A changed username clears the
+     * natural-id region, as the old username's entry cannot be addressed.
+     */
+    private void invalidateCachedUsers(List<Long> ids, boolean usernameChanged) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        if (!session.getFactory().getSessionFactoryOptions().isSecondLevelCacheEnabled()) {
+            return;
+        }
+        CacheImplementor cache = session.getFactory().getCache();
+        Runnable invalidate = () -> {
+            ids.forEach(id -> cache.evictEntityData(User.class, id));
+            if (usernameChanged) {
+                cache.evictNaturalIdData(User.class);
+            }
+            cache.getTimestampsCache().invalidate(USER_TABLE_SPACES, session);
+        };
+        invalidate.run();
+        session.getActionQueue().registerProcess((success, completedSession) -> invalidate.run());
+    }
+
+    private static void putIfPresent(Map<String, Object> columns, String column, String value) {
+        if (value != null) {
+            columns.put(column, value);
+        }
+    }
+}
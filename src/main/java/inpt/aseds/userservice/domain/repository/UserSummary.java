@@ -0,0 +1,14 @@
+package inpt.aseds.userservice.domain.repository;
+
+/**
+ * Projection of the user columns most callers list: ID, username and avatar.
+ * Queries returning it select only these three columns.
+ */
+public interface UserSummary {
+    
+    Long getId();
+    
+    String getUsername();
+    
+    String getAvatarUrl();
+}
@@ -0,0 +1,84 @@
+package inpt.aseds.userservice.infrastructure.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import inpt.aseds.userservice.application.config.UserServiceProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits database traffic between the primary (spring.datasource) and the
+ * replicas in app.user.replicas, replacing Boot's single data source.
+ *
+ * The data source handed to JPA is a {@link LazyConnectionDataSourceProxy}
+ * that only takes a physical connection at the first statement, once the
+ * transaction has marked the connection read-only or not: read-only
+ * transactions get theirs from the {@link ReplicaRoutingDataSource}, all
+ * others from the primary. Replica pools copy the primary's Hikari settings
+ * apart from the URL, credentials, size and connection timeout.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.user.replicas", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             UserServiceProperties properties,
+                                                             MeterRegistry meterRegistry) {
+        UserServiceProperties.Replicas config = properties.getReplicas();
+        List<UserServiceProperties.Replicas.Instance> instances = config.getInstances();
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < instances.size(); i++) {
+            UserServiceProperties.Replicas.Instance instance = instances.get(i);
+            // Not started until first used, so an unreachable replica does not fail startup
+            HikariDataSource replica = new HikariDataSource();
+            primaryDataSource.copyStateTo(replica);
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(instance.getUrl());
+            if (StringUtils.hasText(instance.getUsername())) {
+                replica.setUsername(instance.getUsername());
+                replica.setPassword(instance.getPassword());
+            }
+            replica.setMaximumPoolSize(config.getMaximumPoolSize());
+            replica.setMinimumIdle(Math.min(replica.getMinimumIdle(), config.getMaximumPoolSize()));
+            replica.setConnectionTimeout(config.getConnectionTimeout().toMillis());
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.put(replica.getPoolName(), replica);
+        }
+
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, config.getMaxLag(),
+                config.getReadYourWritesWindow(), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(replicaRoutingDataSource.primary());
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+}
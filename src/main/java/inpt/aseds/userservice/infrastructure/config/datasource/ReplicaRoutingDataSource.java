@@ -0,0 +1,254 @@
+package inpt.aseds.userservice.infrastructure.config.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import inpt.aseds.userservice.infrastructure.config.grpc.CallerKeyInterceptor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections for read-only transactions from replica pools, and
+ * from the primary when no replica can serve them.
+ *
+ * Replicas are used round-robin while healthy. Every health check opens a
+ * connection to each replica and reads its replication lag; a replica that
+ * fails, lags more than maxLag or is not streaming WAL from the primary is
+ * skipped until a later check passes, and replicas start out skipped until
+ * their first check.
+ *
+ * A caller (its {@link CallerKeyInterceptor} key, so the end user for a
+ * trusted forwarder, else the authenticated name) that commits a write through
+ * {@link #primary()} has its reads served by the primary for the
+ * read-your-writes window, so it does not read its own change back stale.
+ *
+ * Exported as db.reads, tagged with route (replica, read-your-writes or
+ * no-healthy-replica), and db.replicas.healthy.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    // Seconds since the last replayed transaction, 0 when the replica has replayed all it received (or is not a
+    // replica at all), and NULL when it is a standby whose WAL stream has stopped: it would otherwise report 0 lag
+    // while falling further behind. Without pg_read_all_stats the receiver's status reads as NULL, and only its
+    // presence is checked.
+    private static final String LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 "
+            + "WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status IS NULL OR status = 'streaming') "
+            + "THEN NULL "
+            + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final DataSource primary;
+    private final DataSource writeTrackingPrimary;
+    private final List<Replica> replicas;
+    private final double maxLagSeconds;
+    // Callers who recently committed a write; null when the window is zero
+    private final Cache<String, Boolean> recentWriters;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Counter replicaReads;
+    private final Counter readYourWritesReads;
+    private final Counter fallbackReads;
+
+    /**
+     * @param replicas replica data sources by name, as used in logs
+     */
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag,
+                                    Duration readYourWritesWindow, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.writeTrackingPrimary = new WriteTrackingDataSource(primary);
+        this.replicas = new ArrayList<>(replicas.size());
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.recentWriters = readYourWritesWindow.isZero() ? null : Caffeine.newBuilder()
+                .expireAfterWrite(readYourWritesWindow)
+                .build();
+
+        this.replicaReads = readCounter("replica", meterRegistry);
+        this.readYourWritesReads = readCounter("read-your-writes", meterRegistry);
+        this.fallbackReads = readCounter("no-healthy-replica", meterRegistry);
+        Gauge.builder("db.replicas.healthy", this, ReplicaRoutingDataSource::healthyReplicas)
+                .description("Replicas currently serving reads")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the primary, remembering the caller of every read-write
+     * transaction that commits on it.
+     */
+    public DataSource primary() {
+        return writeTrackingPrimary;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route().getConnection(username, password);
+    }
+
+    /**
+     * Checks every replica's connectivity and replication lag.
+     */
+    @Scheduled(fixedDelayString = "${app.user.replicas.health-check-interval:5s}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet lag = statement.executeQuery(LAG_QUERY)) {
+                double lagSeconds = 0;
+                boolean streaming = true;
+                if (lag.next()) {
+                    lagSeconds = lag.getDouble(1);
+                    streaming = !lag.wasNull();
+                }
+                healthy = streaming && lagSeconds <= maxLagSeconds;
+                if (!streaming && replica.healthy) {
+                    log.warn("Replica {} is not receiving WAL, routing its reads elsewhere", replica.name);
+                } else if (!healthy && replica.healthy) {
+                    log.warn("Replica {} is {}s behind, routing its reads elsewhere", replica.name, lagSeconds);
+                }
+            } catch (SQLException e) {
+                healthy = false;
+                if (replica.healthy) {
+                    log.warn("Replica {} failed its health check, routing its reads elsewhere: {}",
+                            replica.name, e.getMessage());
+                }
+            }
+            if (healthy && !replica.healthy) {
+                log.info("Replica {} is serving reads", replica.name);
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private DataSource route() {
+        String caller = caller();
+        if (caller != null && recentWriters != null && recentWriters.getIfPresent(caller) != null) {
+            readYourWritesReads.increment();
+            return primary;
+        }
+
+        int size = replicas.size();
+        int first = Math.floorMod(nextReplica.getAndIncrement(), Math.max(1, size));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((first + i) % size);
+            if (replica.healthy) {
+                replicaReads.increment();
+                return replica.dataSource;
+            }
+        }
+        fallbackReads.increment();
+        return primary;
+    }
+
+    private int healthyReplicas() {
+        int healthy = 0;
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                healthy++;
+            }
+        }
+        return healthy;
+    }
+
+    private static String caller() {
+        String key = CallerKeyInterceptor.current();
+        if (key != null) {
+            return key;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+
+    private static Counter readCounter(String route, MeterRegistry meterRegistry) {
+        return Counter.builder("db.reads")
+                .description("Connections handed out for read-only transactions, by route")
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+
+    private static final class Replica {
+        final String name;
+        final DataSource dataSource;
+        volatile boolean healthy;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    /**
+     * The primary, registering the caller as a recent writer when a
+     * read-write transaction it takes a connection for commits.
+     */
+    private final class WriteTrackingDataSource extends DelegatingDataSource {
+
+        WriteTrackingDataSource(DataSource primary) {
+            super(primary);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            trackWrite();
+            return super.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            trackWrite();
+            return super.getConnection(username, password);
+        }
+
+        private void trackWrite() {
+            if (recentWriters == null
+                    || !TransactionSynchronizationManager.isSynchronizationActive()
+                    || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                return;
+            }
+            String caller = caller();
+            if (caller != null) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        recentWriters.put(caller, Boolean.TRUE);
+                    }
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package inpt.aseds.userservice.infrastructure.config.datasource;
+
+import inpt.aseds.userservice.domain.model.User;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Refuses to start when user_table lacks the unique indexes from
+ * db/user-constraints.sql, which usually means the table holds duplicates
+ * and the script could not create them. Updates and imports depend on the
+ * indexes to reject duplicate usernames and emails and would otherwise
+ * write them silently.
+ *
+ * Runs once all singletons exist, i.e. after spring.sql.init has applied
+ * the scripts and before the gRPC server starts.
+ */
+@Component
+public class UserTableConstraintsCheck implements SmartInitializingSingleton {
+
+    private static final String UNIQUE_INDEX_QUERY = "SELECT count(*) FROM pg_index i "
+            + "JOIN pg_class c ON c.oid = i.indexrelid "
+            + "WHERE i.indrelid = to_regclass('user_table') AND i.indisunique AND i.indisvalid AND c.relname = ?";
+
+    private static final int REPORTED_DUPLICATES = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserTableConstraintsCheck(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        check(User.USERNAME_CONSTRAINT, "username");
+        check(User.EMAIL_CONSTRAINT, "email");
+    }
+
+    private void check(String index, String column) {
+        Integer found = jdbcTemplate.queryForObject(UNIQUE_INDEX_QUERY, Integer.class, index);
+        if (found != null && found > 0) {
+            return;
+        }
+
+        // The column name is one of ours, never input
+        List<String> duplicates = jdbcTemplate.query("SELECT " + column + ", count(*) FROM user_table "
+                        + "GROUP BY " + column + " HAVING count(*) > 1 ORDER BY count(*) DESC, " + column
+                        + " LIMIT " + REPORTED_DUPLICATES,
+                (row, rowNum) -> row.getString(1) + " (" + row.getLong(2) + " rows)");
+        String reason = duplicates.isEmpty()
+                ? "no duplicates were found, so the script did not run"
+                : "duplicate values block it and must be resolved first, e.g. " + String.join(", ", duplicates);
+        throw new IllegalStateException("user_table has no unique index " + index + " on " + column + ": "
+                + reason + ". Apply db/user-constraints.sql");
+    }
+}
@@ -0,0 +1,160 @@
+package inpt.aseds.userservice.infrastructure.config.grpc;
+
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.LongSupplier;
+
+/**
+ * Sheds unary calls with RESOURCE_EXHAUSTED once the number in flight reaches
+ * a limit that adapts to observed latency (AIMD).
+ *
+ * Every call that completes within the latency threshold while the limit is
+ * at least half used grows the limit by 1/limit, i.e. by about one per limit
+ * calls. A call slower than the threshold, or one that ended with
+ * DEADLINE_EXCEEDED or RESOURCE_EXHAUSTED, multiplies the limit by the backoff
+ * ratio; calls that started before the last decrease do not decrease it again,
+ * so one slow burst backs off once. Calls are rejected up front rather than
+ * queued, before they wait for a JDBC connection.
+ *
+ * Streaming calls are long by design and neither counted nor limited.
+ * Rejections are counted as grpc.server.calls.rejected with reason
+ * adaptive-limit; the current limit is exported as grpc.server.calls.limit.
+ */
+public class AdaptiveConcurrencyLimitInterceptor implements ServerInterceptor {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // Double bits of the current limit
+    private final AtomicLong limit;
+    private final AtomicLong lastDecrease;
+    private final Counter rejected;
+
+    public AdaptiveConcurrencyLimitInterceptor(int initialLimit, int minLimit, int maxLimit,
+                                               Duration latencyThreshold, double backoffRatio,
+                                               MeterRegistry meterRegistry) {
+        this(initialLimit, minLimit, maxLimit, latencyThreshold, backoffRatio, System::nanoTime, meterRegistry);
+    }
+
+    AdaptiveConcurrencyLimitInterceptor(int initialLimit, int minLimit, int maxLimit,
+                                        Duration latencyThreshold, double backoffRatio,
+                                        LongSupplier nanoClock, MeterRegistry meterRegistry) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.nanoClock = nanoClock;
+        this.lastDecrease = new AtomicLong(nanoClock.getAsLong());
+        this.limit = new AtomicLong(Double.doubleToLongBits(
+                Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit))));
+        this.rejected = Counter.builder("grpc.server.calls.rejected")
+                .tag("reason", "adaptive-limit")
+                .register(meterRegistry);
+        Gauge.builder("grpc.server.calls.limit", this, AdaptiveConcurrencyLimitInterceptor::limit)
+                .description("Unary calls allowed in flight by the adaptive limit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        if (call.getMethodDescriptor().getType() != MethodDescriptor.MethodType.UNARY) {
+            return next.startCall(call, headers);
+        }
+
+        int current = inFlight.incrementAndGet();
+        if (current > limit()) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+            call.close(Status.RESOURCE_EXHAUSTED.withDescription("Server is shedding load"), new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+
+        long started = nanoClock.getAsLong();
+        AtomicBoolean completed = new AtomicBoolean();
+
+        ServerCall<ReqT, RespT> measuredCall = new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                try {
+                    super.close(status, trailers);
+                } finally {
+                    if (completed.compareAndSet(false, true)) {
+                        inFlight.decrementAndGet();
+                        onSample(started, nanoClock.getAsLong() - started, status, current);
+                    }
+                }
+            }
+        };
+
+        try {
+            return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(next.startCall(measuredCall, headers)) {
+                @Override
+                public void onCancel() {
+                    try {
+                        super.onCancel();
+                    } finally {
+                        // Cancelled by the client; says nothing about our latency
+                        if (completed.compareAndSet(false, true)) {
+                            inFlight.decrementAndGet();
+                        }
+                    }
+                }
+            };
+        } catch (RuntimeException e) {
+            if (completed.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of unary calls currently allowed in flight.
+     */
+    public int limit() {
+        return (int) Double.longBitsToDouble(limit.get());
+    }
+
+    private void onSample(long started, long latencyNanos, Status status, int inFlightAtStart) {
+        Status.Code code = status.getCode();
+        if (latencyNanos > latencyThresholdNanos
+                || code == Status.Code.DEADLINE_EXCEEDED || code == Status.Code.RESOURCE_EXHAUSTED) {
+            long last = lastDecrease.get();
+            if (started - last > 0 && lastDecrease.compareAndSet(last, nanoClock.getAsLong())) {
+                update(l -> Math.max(minLimit, l * backoffRatio));
+            }
+        } else if (inFlightAtStart * 2 >= limit()) {
+            update(l -> Math.min(maxLimit, l + 1 / l));
+        }
+    }
+
+    private void update(DoubleUnaryOperator function) {
+        while (true) {
+            long current = limit.get();
+            long next = Double.doubleToLongBits(function.applyAsDouble(Double.longBitsToDouble(current)));
+            if (current == next || limit.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+}
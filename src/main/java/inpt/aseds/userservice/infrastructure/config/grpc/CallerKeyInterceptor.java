@@ -0,0 +1,57 @@
+package inpt.aseds.userservice.infrastructure.config.grpc;
+
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Set;
+
+/**
+ * Binds the key that per-caller state is kept under to the call's gRPC
+ * Context, for the rate limit and the read-your-writes window of replica
+ * routing.
+ *
+ * The key is the authenticated name (the JWT subject). A trusted forwarder,
+ * such as a gateway calling with one token for all its users, is keyed per
+ * end user instead, as "name/end-user" from the forwarded-user header; the
+ * header of any other caller is ignored. Must run after
+ * {@link GrpcAuthenticationInterceptor}; unauthenticated calls get no key.
+ */
+public class CallerKeyInterceptor implements ServerInterceptor {
+
+    private static final Context.Key<String> CALLER_KEY = Context.key("caller-key");
+
+    private final Metadata.Key<String> forwardedUserHeader;
+    private final Set<String> trustedForwarders;
+
+    public CallerKeyInterceptor(String forwardedUserHeader, Set<String> trustedForwarders) {
+        this.forwardedUserHeader = Metadata.Key.of(forwardedUserHeader, Metadata.ASCII_STRING_MARSHALLER);
+        this.trustedForwarders = Set.copyOf(trustedForwarders);
+    }
+
+    /**
+     * Returns the key of the caller whose call is being handled, or null
+     * outside an authenticated gRPC call.
+     */
+    public static String current() {
+        return CALLER_KEY.get();
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return next.startCall(call, headers);
+        }
+        String name = authentication.getName();
+        String endUser = trustedForwarders.contains(name) ? headers.get(forwardedUserHeader) : null;
+        String key = endUser != null ? name + "/" + endUser : name;
+        return Contexts.interceptCall(Context.current().withValue(CALLER_KEY, key), call, headers, next);
+    }
+}
@@ -0,0 +1,102 @@
+package inpt.aseds.userservice.infrastructure.config.grpc;
+
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps the number of gRPC calls in flight with a fair semaphore.
+ *
+ * Intended for virtual-thread execution: a call that finds no permit parks
+ * its (cheap) virtual thread for up to the queue timeout instead of taking a
+ * JDBC connection away from the calls already running, and is rejected with
+ * RESOURCE_EXHAUSTED if none frees up. The permit is held until the call
+ * closes or is cancelled.
+ */
+public class ConcurrencyLimitInterceptor implements ServerInterceptor {
+
+    private final Semaphore permits;
+    private final long queueTimeoutNanos;
+    private final Counter rejected;
+
+    public ConcurrencyLimitInterceptor(int maxConcurrentCalls, Duration queueTimeout, MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        this.rejected = Counter.builder("grpc.server.calls.rejected")
+                .tag("reason", "concurrency-limit")
+                .register(meterRegistry);
+        Gauge.builder("grpc.server.calls.queued", permits, Semaphore::getQueueLength)
+                .description("Calls waiting for a concurrency permit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        if (!acquire()) {
+            rejected.increment();
+            call.close(Status.RESOURCE_EXHAUSTED.withDescription("Server is at its concurrency limit"), new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        };
+
+        ServerCall<ReqT, RespT> releasingCall = new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                try {
+                    super.close(status, trailers);
+                } finally {
+                    release.run();
+                }
+            }
+        };
+
+        try {
+            return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(next.startCall(releasingCall, headers)) {
+                @Override
+                public void onCancel() {
+                    try {
+                        super.onCancel();
+                    } finally {
+                        release.run();
+                    }
+                }
+            };
+        } catch (RuntimeException e) {
+            release.run();
+            throw e;
+        }
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    private boolean acquire() {
+        try {
+            return permits.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package inpt.aseds.userservice.infrastructure.config.grpc;
+
+import io.grpc.Attributes;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerTransportFilter;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Authenticates gRPC calls with the bearer token in their authorization
+ * header and enforces per-method role rules.
+ *
+ * Each connection remembers the last principal it authenticated until the
+ * token's exp (capped at maxTtl), so a long-lived channel that keeps sending
+ * the same token is verified once; the per-call cost is a string comparison
+ * and a map lookup for the method's required authority. A connection that
+ * carries many tokens falls back to the token cache behind the provider.
+ *
+ * The authentication is available to handlers through SecurityContextHolder.
+ * Rejections are counted as grpc.server.calls.rejected with reason
+ * unauthenticated or permission-denied.
+ */
+public class GrpcAuthenticationInterceptor implements ServerInterceptor {
+
+    private static final Metadata.Key<String> AUTHORIZATION =
+            Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER);
+    private static final Attributes.Key<ConnectionPrincipal> CONNECTION_PRINCIPAL =
+            Attributes.Key.create("connection-principal");
+    private static final String BEARER_PREFIX = "bearer ";
+
+    private final AuthenticationProvider authenticationProvider;
+    private final Map<String, String> requiredAuthorities;
+    private final Duration maxTtl;
+    private final Counter unauthenticated;
+    private final Counter permissionDenied;
+
+    /**
+     * @param requiredAuthorities authority required per full method name; methods
+     *                            not listed only require an authenticated caller
+     * @param maxTtl              how long a connection may reuse a principal, or
+     *                            zero to authenticate every call
+     */
+    public GrpcAuthenticationInterceptor(AuthenticationProvider authenticationProvider,
+                                         Map<String, String> requiredAuthorities,
+                                         Duration maxTtl, MeterRegistry meterRegistry) {
+        this.authenticationProvider = authenticationProvider;
+        this.requiredAuthorities = Map.copyOf(requiredAuthorities);
+        this.maxTtl = maxTtl;
+        this.unauthenticated = Counter.builder("grpc.server.calls.rejected")
+                .tag("reason", "unauthenticated")
+                .register(meterRegistry);
+        this.permissionDenied = Counter.builder("grpc.server.calls.rejected")
+                .tag("reason", "permission-denied")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Gives every connection the slot its principal is remembered in; must be
+     * added to the server for principals to be reused across calls.
+     */
+    public ServerTransportFilter transportFilter() {
+        return new ServerTransportFilter() {
+            @Override
+            public Attributes transportReady(Attributes transportAttrs) {
+                return transportAttrs.toBuilder()
+                        .set(CONNECTION_PRINCIPAL, new ConnectionPrincipal())
+                        .build();
+            }
+        };
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        String token = bearerToken(headers.get(AUTHORIZATION));
+        if (token == null) {
+            return reject(call, unauthenticated, Status.UNAUTHENTICATED.withDescription("Missing bearer token"));
+        }
+
+        Principal principal = principal(call.getAttributes().get(CONNECTION_PRINCIPAL), token);
+        if (principal == null) {
+            return reject(call, unauthenticated, Status.UNAUTHENTICATED.withDescription("Invalid bearer token"));
+        }
+
+        String required = requiredAuthorities.get(call.getMethodDescriptor().getFullMethodName());
+        if (required != null && !principal.authorities().contains(required)) {
+            return reject(call, permissionDenied, Status.PERMISSION_DENIED.withDescription("Access denied"));
+        }
+
+        SecurityContext securityContext = new SecurityContextImpl(principal.authentication());
+        SecurityContext previous = bind(securityContext);
+        try {
+            return new AuthenticatedListener<>(next.startCall(call, headers), securityContext);
+        } finally {
+            SecurityContextHolder.setContext(previous);
+        }
+    }
+
+    /**
+     * Returns the connection's remembered principal when it was authenticated
+     * with the same token and has not expired, authenticating the token otherwise.
+     */
+    private Principal principal(ConnectionPrincipal connection, String token) {
+        long now = System.currentTimeMillis();
+        if (connection != null) {
+            Principal last = connection.principal;
+            if (last != null && last.expiresAtMillis() > now && last.token().equals(token)) {
+                return last;
+            }
+        }
+
+        Authentication authentication;
+        try {
+            authentication = authenticationProvider.authenticate(new BearerTokenAuthenticationToken(token));
+        } catch (AuthenticationException e) {
+            return null;
+        }
+
+        Principal principal = new Principal(token, authentication, authorityNames(authentication),
+                expiresAtMillis(authentication, now));
+        if (connection != null) {
+            connection.principal = principal;
+        }
+        return principal;
+    }
+
+    private long expiresAtMillis(Authentication authentication, long now) {
+        long expiresAt = now + maxTtl.toMillis();
+        if (authentication instanceof JwtAuthenticationToken jwtAuthentication) {
+            Instant tokenExpiry = jwtAuthentication.getToken().getExpiresAt();
+            if (tokenExpiry != null) {
+                expiresAt = Math.min(expiresAt, tokenExpiry.toEpochMilli());
+            }
+        }
+        return expiresAt;
+    }
+
+    private static Set<String> authorityNames(Authentication authentication) {
+        Set<String> names = new HashSet<>();
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            names.add(authority.getAuthority());
+        }
+        return Set.copyOf(names);
+    }
+
+    private static String bearerToken(String authorization) {
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return null;
+        }
+        String token = authorization.substring(BEARER_PREFIX.length()).trim();
+        return token.isEmpty() ? null : token;
+    }
+
+    private static <ReqT, RespT> ServerCall.Listener<ReqT> reject(ServerCall<ReqT, RespT> call, Counter counter,
+                                                                  Status status) {
+        counter.increment();
+        call.close(status, new Metadata());
+        return new ServerCall.Listener<>() {
+        };
+    }
+
+    /**
+     * Makes the security context current and returns the one it replaced.
+     */
+    private static SecurityContext bind(SecurityContext securityContext) {
+        SecurityContext previous = SecurityContextHolder.getContext();
+        SecurityContextHolder.setContext(securityContext);
+        return previous;
+    }
+
+    /**
+     * An authenticated caller and the authority names its rules are checked against.
+     */
+    private record Principal(String token, Authentication authentication, Set<String> authorities,
+                             long expiresAtMillis) {
+    }
+
+    /**
+     * The principal last authenticated on a connection.
+     */
+    private static final class ConnectionPrincipal {
+        volatile Principal principal;
+    }
+
+    /**
+     * Exposes the call's security context to the handler while it runs.
+     */
+    private static final class AuthenticatedListener<ReqT> extends ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT> {
+
+        private final SecurityContext securityContext;
+
+        AuthenticatedListener(ServerCall.Listener<ReqT> delegate, SecurityContext securityContext) {
+            super(delegate);
+            this.securityContext = securityContext;
+        }
+
+        @Override
+        public void onMessage(ReqT message) {
+            SecurityContext previous = bind(securityContext);
+            try {
+                super.onMessage(message);
+            } finally {
+                SecurityContextHolder.setContext(previous);
+            }
+        }
+
+        @Override
+        public void onHalfClose() {
+            SecurityContext previous = bind(securityContext);
+            try {
+                super.onHalfClose();
+            } finally {
+                SecurityContextHolder.setContext(previous);
+            }
+        }
+
+        @Override
+        public void onCancel() {
+            SecurityContext previous = bind(securityContext);
+            try {
+                super.onCancel();
+            } finally {
+                SecurityContextHolder.setContext(previous);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            SecurityContext previous = bind(securityContext);
+            try {
+                super.onComplete();
+            } finally {
+                SecurityContextHolder.setContext(previous);
+            }
+        }
+
+        @Override
+        public void onReady() {
+            SecurityContext previous = bind(securityContext);
+            try {
+                super.onReady();
+            } finally {
+                SecurityContextHolder.setContext(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package inpt.aseds.userservice.infrastructure.config.grpc;
+
+import inpt.aseds.userservice.application.config.UserServiceProperties;
+import io.grpc.ServerBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.grpc.server.GlobalServerInterceptor;
+import org.springframework.grpc.server.ServerBuilderCustomizer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Selects how gRPC handlers are executed (app.user.grpc.execution-mode).
+ *
+ * In "platform" mode (the default) calls run on grpc-java's default cached
+ * thread pool. In "virtual" mode every call runs on its own virtual thread,
+ * and a {@link ConcurrencyLimitInterceptor} sized like the Hikari pool keeps
+ * the number of calls competing for connections bounded, so bursts queue
+ * cheaply instead of piling up platform threads blocked on JDBC. The
+ * executor is closed with the context, after the server has stopped, which
+ * waits for calls still in flight.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.user.grpc", name = "execution-mode", havingValue = "virtual")
+public class GrpcExecutionConfig {
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService grpcVirtualThreadExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @Bean
+    public <T extends ServerBuilder<T>> ServerBuilderCustomizer<T> virtualThreadExecutorCustomizer(
+            ExecutorService grpcVirtualThreadExecutor) {
+        return builder -> builder.executor(grpcVirtualThreadExecutor);
+    }
+
+    @Bean
+    @GlobalServerInterceptor
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public ConcurrencyLimitInterceptor concurrencyLimitInterceptor(UserServiceProperties properties,
+                                                                   MeterRegistry meterRegistry) {
+        UserServiceProperties.Grpc grpc = properties.getGrpc();
+        return new ConcurrencyLimitInterceptor(grpc.getMaxConcurrentCalls(), grpc.getQueueTimeout(), meterRegistry);
+    }
+}
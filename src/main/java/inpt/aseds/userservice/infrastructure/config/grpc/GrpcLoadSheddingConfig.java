@@ -0,0 +1,55 @@
+package inpt.aseds.userservice.infrastructure.config.grpc;
+
+import inpt.aseds.userservice.application.config.UserServiceProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.grpc.server.GlobalServerInterceptor;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Registers the per-client rate limit (app.user.grpc.rate-limit, off unless
+ * enabled) and the adaptive concurrency limit (app.user.grpc.adaptive-limit).
+ *
+ * Both run after authentication and the {@link CallerKeyInterceptor}, so the
+ * rate limit sees the caller's identity and unauthenticated calls never count
+ * against either, and before the
+ * virtual-mode concurrency limit, so shed calls are rejected instead of
+ * queueing for a permit. The rate limit runs first so that one client over its
+ * rate does not take adaptive-limit slots from the others.
+ */
+@Configuration
+public class GrpcLoadSheddingConfig {
+
+    @Bean
+    @GlobalServerInterceptor
+    @Order(Ordered.HIGHEST_PRECEDENCE + 4)
+    @ConditionalOnProperty(prefix = "app.user.grpc.rate-limit", name = "enabled", havingValue = "true")
+    public RateLimitInterceptor rateLimitInterceptor(UserServiceProperties properties, MeterRegistry meterRegistry) {
+        UserServiceProperties.Grpc.RateLimit rateLimit = properties.getGrpc().getRateLimit();
+        Map<String, RateLimitInterceptor.Limit> methodLimits = new HashMap<>();
+        rateLimit.getMethods().forEach((method, limit) -> methodLimits.put(method,
+                new RateLimitInterceptor.Limit(limit.getPermitsPerSecond(), limit.getBurst())));
+        return new RateLimitInterceptor(
+                new RateLimitInterceptor.Limit(rateLimit.getPermitsPerSecond(), rateLimit.getBurst()),
+                methodLimits, rateLimit.getMaxBuckets(), Set.copyOf(rateLimit.getExemptClients()), meterRegistry);
+    }
+
+    @Bean
+    @GlobalServerInterceptor
+    @Order(Ordered.HIGHEST_PRECEDENCE + 5)
+    @ConditionalOnProperty(prefix = "app.user.grpc.adaptive-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public AdaptiveConcurrencyLimitInterceptor adaptiveConcurrencyLimitInterceptor(UserServiceProperties properties,
+                                                                                   MeterRegistry meterRegistry) {
+        UserServiceProperties.Grpc.AdaptiveLimit adaptiveLimit = properties.getGrpc().getAdaptiveLimit();
+        return new AdaptiveConcurrencyLimitInterceptor(adaptiveLimit.getInitialLimit(), adaptiveLimit.getMinLimit(),
+                adaptiveLimit.getMaxLimit(), adaptiveLimit.getLatencyThreshold(), adaptiveLimit.getBackoffRatio(),
+                meterRegistry);
+    }
+}
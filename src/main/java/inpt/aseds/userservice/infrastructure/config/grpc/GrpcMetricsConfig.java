@@ -0,0 +1,33 @@
+package inpt.aseds.userservice.infrastructure.config.grpc;
+
+import inpt.aseds.userservice.application.config.UserServiceProperties;
+import inpt.aseds.userservice.infrastructure.metrics.GrpcServerMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.grpc.server.GlobalServerInterceptor;
+
+/**
+ * Registers the gRPC server metrics interceptor outermost, so calls rejected by
+ * other interceptors are still timed and counted by status, followed by the
+ * sampled request log (app.user.grpc.request-log-sample-rate).
+ */
+@Configuration
+public class GrpcMetricsConfig {
+
+    @Bean
+    @GlobalServerInterceptor
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public GrpcServerMetricsInterceptor grpcServerMetricsInterceptor(MeterRegistry meterRegistry) {
+        return new GrpcServerMetricsInterceptor(meterRegistry);
+    }
+
+    @Bean
+    @GlobalServerInterceptor
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    public RequestLoggingInterceptor requestLoggingInterceptor(UserServiceProperties properties) {
+        return new RequestLoggingInterceptor(properties.getGrpc().getRequestLogSampleRate());
+    }
+}
@@ -0,0 +1,73 @@
+package inpt.aseds.userservice.infrastructure.config.grpc;
+
+import inpt.aseds.userservice.application.config.UserServiceProperties;
+import inpt.aseds.userservice.infrastructure.grpc.ChannelServiceGrpc;
+import inpt.aseds.userservice.infrastructure.grpc.UserServiceGrpc;
+import io.grpc.ServerBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.grpc.server.GlobalServerInterceptor;
+import org.springframework.grpc.server.ServerBuilderCustomizer;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Secures the gRPC server with the same JwtDecoder and Keycloak role mapping
+ * as the HTTP endpoints. Every call needs a valid bearer token; writes also
+ * need the role listed below.
+ *
+ * The interceptor runs after the metrics and request log interceptors, so
+ * rejected calls are still measured, and before the concurrency limit, so
+ * they never take a permit. It replaces the interceptor spring-grpc would
+ * auto-configure, which is excluded in application.yaml. It is followed by
+ * the {@link CallerKeyInterceptor}, which names the caller for per-caller
+ * limits and read-your-writes routing.
+ */
+@Configuration
+public class GrpcSecurityConfig {
+
+    private static final Map<String, String> REQUIRED_AUTHORITIES = Map.of(
+            UserServiceGrpc.getUpdateUserMethod().getFullMethodName(), "ROLE_USER",
+            UserServiceGrpc.getDeactivateUserMethod().getFullMethodName(), "ROLE_USER",
+            UserServiceGrpc.getDeleteUserMethod().getFullMethodName(), "ROLE_ADMIN",
+            UserServiceGrpc.getExportUsersMethod().getFullMethodName(), "ROLE_ADMIN",
+            UserServiceGrpc.getImportUsersMethod().getFullMethodName(), "ROLE_ADMIN",
+            ChannelServiceGrpc.getSetChannelLiveMethod().getFullMethodName(), "ROLE_USER");
+
+    @Bean
+    @GlobalServerInterceptor
+    @Order(Ordered.HIGHEST_PRECEDENCE + 2)
+    public GrpcAuthenticationInterceptor grpcAuthenticationInterceptor(JwtDecoder jwtDecoder,
+                                                                       JwtAuthenticationConverter jwtAuthenticationConverter,
+                                                                       UserServiceProperties properties,
+                                                                       MeterRegistry meterRegistry) {
+        JwtAuthenticationProvider authenticationProvider = new JwtAuthenticationProvider(jwtDecoder);
+        authenticationProvider.setJwtAuthenticationConverter(jwtAuthenticationConverter);
+
+        UserServiceProperties.Security.TokenCache tokenCache = properties.getSecurity().getTokenCache();
+        Duration maxTtl = tokenCache.isEnabled() ? tokenCache.getMaxTtl() : Duration.ZERO;
+        return new GrpcAuthenticationInterceptor(authenticationProvider, REQUIRED_AUTHORITIES, maxTtl, meterRegistry);
+    }
+
+    @Bean
+    @GlobalServerInterceptor
+    @Order(Ordered.HIGHEST_PRECEDENCE + 3)
+    public CallerKeyInterceptor callerKeyInterceptor(UserServiceProperties properties) {
+        UserServiceProperties.Grpc grpc = properties.getGrpc();
+        return new CallerKeyInterceptor(grpc.getForwardedUserHeader(), Set.copyOf(grpc.getTrustedForwarders()));
+    }
+
+    @Bean
+    public <T extends ServerBuilder<T>> ServerBuilderCustomizer<T> connectionPrincipalCustomizer(
+            GrpcAuthenticationInterceptor grpcAuthenticationInterceptor) {
+        return builder -> builder.addTransportFilter(grpcAuthenticationInterceptor.transportFilter());
+    }
+}
@@ -0,0 +1,159 @@
+package inpt.aseds.userservice.infrastructure.config.grpc;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.grpc.Grpc;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits the call rate of each client on each method with a token bucket,
+ * rejecting calls over the limit with RESOURCE_EXHAUSTED.
+ *
+ * Clients are identified by their {@link CallerKeyInterceptor} key, i.e. the
+ * authenticated name or, for a trusted forwarder such as a gateway, the end
+ * user it forwards for, so this must run after that interceptor; calls
+ * without a key are identified by remote address. Exempt clients are not
+ * limited. Each bucket is a single theoretical arrival time updated with
+ * compare-and-set (GCRA), so admitting a call takes no lock.
+ * Buckets expire once idle long enough to have refilled, and at most
+ * maxBuckets are kept.
+ *
+ * Rejections are counted as grpc.server.calls.rejected with reason rate-limit.
+ */
+public class RateLimitInterceptor implements ServerInterceptor {
+
+    // Empty when the method is not limited
+    private final Optional<Rate> defaultRate;
+    private final Map<String, Optional<Rate>> methodRates;
+    private final Set<String> exemptClients;
+    private final LongSupplier nanoClock;
+    private final Cache<BucketKey, AtomicLong> buckets;
+    private final Counter rejected;
+
+    /**
+     * @param methodLimits  limits per bare method name (e.g. SearchUsers) that
+     *                      replace the default; a limit of zero permits per
+     *                      second leaves the method unlimited
+     * @param exemptClients authenticated names that are not limited
+     */
+    public RateLimitInterceptor(Limit defaultLimit, Map<String, Limit> methodLimits, long maxBuckets,
+                                Set<String> exemptClients, MeterRegistry meterRegistry) {
+        this(defaultLimit, methodLimits, maxBuckets, exemptClients, System::nanoTime, meterRegistry);
+    }
+
+    RateLimitInterceptor(Limit defaultLimit, Map<String, Limit> methodLimits, long maxBuckets,
+                         Set<String> exemptClients, LongSupplier nanoClock, MeterRegistry meterRegistry) {
+        this.defaultRate = Rate.of(defaultLimit);
+        Map<String, Optional<Rate>> rates = new HashMap<>();
+        long longestRefill = defaultRate.map(Rate::burstNanos).orElse(0L);
+        for (Map.Entry<String, Limit> entry : methodLimits.entrySet()) {
+            Optional<Rate> rate = Rate.of(entry.getValue());
+            rates.put(entry.getKey(), rate);
+            longestRefill = Math.max(longestRefill, rate.map(Rate::burstNanos).orElse(0L));
+        }
+        this.methodRates = Map.copyOf(rates);
+        this.exemptClients = Set.copyOf(exemptClients);
+        this.nanoClock = nanoClock;
+
+        this.buckets = Caffeine.newBuilder()
+                .ticker(nanoClock::getAsLong)
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(Duration.ofNanos(Math.max(longestRefill, Duration.ofSeconds(1).toNanos())))
+                .build();
+        this.rejected = Counter.builder("grpc.server.calls.rejected")
+                .tag("reason", "rate-limit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        MethodDescriptor<ReqT, RespT> method = call.getMethodDescriptor();
+        Rate rate = methodRates.getOrDefault(method.getBareMethodName(), defaultRate).orElse(null);
+        String client = rate != null ? client(call) : null;
+        if (client != null && !tryAcquire(new BucketKey(client, method.getFullMethodName()), rate)) {
+            rejected.increment();
+            call.close(Status.RESOURCE_EXHAUSTED.withDescription("Rate limit exceeded"), new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+        return next.startCall(call, headers);
+    }
+
+    /**
+     * Takes a token from the bucket: admits the call when the theoretical
+     * arrival time, advanced by one interval, stays within the burst window.
+     */
+    private boolean tryAcquire(BucketKey key, Rate rate) {
+        AtomicLong arrival = buckets.get(key, k -> new AtomicLong(nanoClock.getAsLong()));
+        long now = nanoClock.getAsLong();
+        while (true) {
+            long current = arrival.get();
+            long next = (current - now > 0 ? current : now) + rate.intervalNanos();
+            if (next - now > rate.burstNanos()) {
+                return false;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the key of the caller's buckets, or null for an exempt caller.
+     */
+    private String client(ServerCall<?, ?> call) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && exemptClients.contains(authentication.getName())) {
+            return null;
+        }
+        String key = CallerKeyInterceptor.current();
+        if (key != null) {
+            return key;
+        }
+        SocketAddress remote = call.getAttributes().get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR);
+        return remote instanceof InetSocketAddress address ? address.getHostString() : "anonymous";
+    }
+
+    /**
+     * A sustained rate and the number of calls that may be made at once.
+     */
+    public record Limit(double permitsPerSecond, int burst) {
+    }
+
+    /**
+     * A limit as the interval between tokens and the time a full bucket covers.
+     */
+    private record Rate(long intervalNanos, long burstNanos) {
+
+        static Optional<Rate> of(Limit limit) {
+            if (limit.permitsPerSecond() <= 0) {
+                return Optional.empty();
+            }
+            long interval = Math.max(1, (long) (1_000_000_000 / limit.permitsPerSecond()));
+            return Optional.of(new Rate(interval, interval * Math.max(1, limit.burst())));
+        }
+    }
+
+    private record BucketKey(String client, String method) {
+    }
+}
@@ -0,0 +1,54 @@
+package inpt.aseds.userservice.infrastructure.config.grpc;
+
+import io.grpc.ForwardingServerCall;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs one line per sampled gRPC call (method, status, duration) to the
+ * "inpt.aseds.userservice.grpc.requests" logger at INFO.
+ *
+ * The sampling decision is made once per call; unsampled calls are passed
+ * through unwrapped, so with a low rate the request log costs a random number
+ * per call. A rate of 1 logs every call, 0 turns the log off.
+ */
+public class RequestLoggingInterceptor implements ServerInterceptor {
+
+    private static final Logger requestLog = LoggerFactory.getLogger("inpt.aseds.userservice.grpc.requests");
+
+    private final double sampleRate;
+
+    public RequestLoggingInterceptor(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        if (!sampled() || !requestLog.isInfoEnabled()) {
+            return next.startCall(call, headers);
+        }
+
+        long start = System.nanoTime();
+        return next.startCall(new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                super.close(status, trailers);
+                requestLog.info("{} {} {}ms", call.getMethodDescriptor().getFullMethodName(), status.getCode(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        }, headers);
+    }
+
+    private boolean sampled() {
+        return sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+}
@@ -0,0 +1,105 @@
+package inpt.aseds.userservice.infrastructure.config.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Decodes JWTs through a delegate and keeps the tokens it accepted, so a token
+ * presented again skips parsing, signature verification and claim validation.
+ *
+ * Entries are keyed by a SHA-256 of the token rather than the token itself and
+ * expire at the token's exp claim, or after maxTtl when that comes first.
+ * Rejected tokens are never cached. Exported as cache.* meters under the name
+ * jwt.decoded.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final Cache<TokenHash, Jwt> decoded;
+
+    public CachingJwtDecoder(JwtDecoder delegate, long maxSize, Duration maxTtl, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.decoded = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilExpiry(maxTtl))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, decoded, "jwt.decoded");
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        TokenHash key = TokenHash.of(token);
+        Jwt jwt = decoded.getIfPresent(key);
+        if (jwt != null) {
+            return jwt;
+        }
+
+        jwt = delegate.decode(token);
+        decoded.put(key, jwt);
+        return jwt;
+    }
+
+    /**
+     * SHA-256 of a token, compared by value.
+     */
+    private record TokenHash(long h0, long h1, long h2, long h3) {
+
+        static TokenHash of(String token) {
+            MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+            ByteBuffer hash = ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+            return new TokenHash(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+        }
+    }
+
+    /**
+     * Expires an entry at its token's exp claim, capped at maxTtl.
+     */
+    private static final class UntilExpiry implements Expiry<TokenHash, Jwt> {
+
+        private final Duration maxTtl;
+
+        UntilExpiry(Duration maxTtl) {
+            this.maxTtl = maxTtl;
+        }
+
+        @Override
+        public long expireAfterCreate(TokenHash key, Jwt jwt, long currentTime) {
+            Instant expiresAt = jwt.getExpiresAt();
+            if (expiresAt == null) {
+                return maxTtl.toNanos();
+            }
+            Duration untilExpiry = Duration.between(Instant.now(), expiresAt);
+            return untilExpiry.compareTo(maxTtl) > 0 ? maxTtl.toNanos() : Math.max(0, untilExpiry.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenHash key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(TokenHash key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
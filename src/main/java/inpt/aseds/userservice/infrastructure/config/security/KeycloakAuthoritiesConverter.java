@@ -0,0 +1,83 @@
+package inpt.aseds.userservice.infrastructure.config.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maps Keycloak realm roles to ROLE_* authorities and streaming-app client
+ * roles to ROLE_APP_* authorities.
+ *
+ * Tokens carry a handful of distinct role sets, so the resulting immutable
+ * authority sets are cached per role set (up to maxSize of them) and shared
+ * between requests. Exported as cache.* meters under the name jwt.authorities.
+ */
+public class KeycloakAuthoritiesConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
+
+    private static final String CLIENT_ID = "streaming-app";
+
+    // null when caching is disabled
+    private final Cache<RoleSet, Collection<GrantedAuthority>> authorities;
+
+    public KeycloakAuthoritiesConverter(int maxSize, MeterRegistry meterRegistry) {
+        if (maxSize > 0) {
+            this.authorities = Caffeine.newBuilder()
+                    .maximumSize(maxSize)
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, authorities, "jwt.authorities");
+        } else {
+            this.authorities = null;
+        }
+    }
+
+    @Override
+    public Collection<GrantedAuthority> convert(Jwt jwt) {
+        // Extract realm roles
+        List<?> realmRoles = roles(jwt.getClaim("realm_access"));
+
+        // Extract client roles for your specific client
+        Map<String, Object> resourceAccess = jwt.getClaim("resource_access");
+        List<?> clientRoles = resourceAccess != null ? roles(resourceAccess.get(CLIENT_ID)) : List.of();
+
+//        // Check for streaming-admin client roles if needed
+//        List<?> adminRoles = resourceAccess != null ? roles(resourceAccess.get("streaming-admin")) : List.of();
+//        adminRoles.forEach(role -> authorities.add(new SimpleGrantedAuthority("ROLE_ADMIN_" + role)));
+
+        RoleSet roleSet = new RoleSet(realmRoles, clientRoles);
+        return authorities == null
+                ? toAuthorities(roleSet)
+                : authorities.get(roleSet, KeycloakAuthoritiesConverter::toAuthorities);
+    }
+
+    private static List<?> roles(Object access) {
+        if (access instanceof Map<?, ?> map && map.get("roles") instanceof List<?> roles) {
+            return roles;
+        }
+        return List.of();
+    }
+
+    private static Collection<GrantedAuthority> toAuthorities(RoleSet roleSet) {
+        Collection<GrantedAuthority> authorities = new HashSet<>();
+        roleSet.realmRoles().forEach(role -> authorities.add(new SimpleGrantedAuthority("ROLE_" + role)));
+        roleSet.clientRoles().forEach(role -> authorities.add(new SimpleGrantedAuthority("ROLE_APP_" + role)));
+        return Set.copyOf(authorities);
+    }
+
+    /**
+     * The role claims of a token, compared by value.
+     */
+    private record RoleSet(List<?> realmRoles, List<?> clientRoles) {
+    }
+}
@@ -1,24 +1,53 @@
 package inpt.aseds.userservice.infrastructure.config.security;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import inpt.aseds.userservice.application.config.UserServiceProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.OAuth2ResourceServerProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.util.StringUtils;
 
+import java.net.MalformedURLException;
+import java.net.URI;
 import java.util.*;
 
+/**
+ * Security for the HTTP endpoints. The JwtDecoder and JwtAuthenticationConverter
+ * beans defined here are shared with the gRPC server (GrpcSecurityConfig).
+ *
+ * Verified tokens are cached by {@link CachingJwtDecoder} and granted
+ * authorities by {@link KeycloakAuthoritiesConverter}
+ * (app.user.security.*). The JWKS is cached for app.user.security.jwks.ttl
+ * and refetched in the background before it expires, so requests never wait
+ * on the key set unless they present an unknown key ID.
+ */
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain webOAuth2FilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain webOAuth2FilterChain(HttpSecurity http,
+                                                    JwtAuthenticationConverter jwtAuthenticationConverter) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(authorize -> authorize
@@ -29,7 +58,7 @@ public class SecurityConfig {
                 )
                 .oauth2ResourceServer(oauth2 -> oauth2
                         .jwt(jwt -> jwt
-                                .jwtAuthenticationConverter(jwtAuthenticationConverter())
+                                .jwtAuthenticationConverter(jwtAuthenticationConverter)
                         )
                 );
 
@@ -37,44 +66,61 @@ public class SecurityConfig {
     }
 
     @Bean
-    public JwtAuthenticationConverter jwtAuthenticationConverter() {
+    public JwtAuthenticationConverter jwtAuthenticationConverter(UserServiceProperties properties,
+                                                                 MeterRegistry meterRegistry) {
         JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
-        converter.setJwtGrantedAuthoritiesConverter(jwt -> {
-            Collection<GrantedAuthority> authorities = new HashSet<>();
+        converter.setJwtGrantedAuthoritiesConverter(new KeycloakAuthoritiesConverter(
+                properties.getSecurity().getAuthoritiesCacheMaxSize(), meterRegistry));
+        return converter;
+    }
 
-            // Extract realm roles
-            Map<String, Object> realmAccess = jwt.getClaim("realm_access");
-            if (realmAccess != null && realmAccess.containsKey("roles")) {
-                List<String> roles = (List<String>) realmAccess.get("roles");
-                roles.forEach(role -> authorities.add(new SimpleGrantedAuthority("ROLE_" + role)));
-            }
+    @Bean
+    public JWKSource<SecurityContext> jwkSource(OAuth2ResourceServerProperties resourceServerProperties,
+                                                UserServiceProperties properties) throws MalformedURLException {
+        UserServiceProperties.Security.Jwks jwks = properties.getSecurity().getJwks();
+        return JWKSourceBuilder.<SecurityContext>create(URI.create(resourceServerProperties.getJwt().getJwkSetUri()).toURL())
+                .cache(jwks.getTtl().toMillis(), JWKSourceBuilder.DEFAULT_CACHE_REFRESH_TIMEOUT)
+                .refreshAheadCache(jwks.getRefreshAhead().toMillis(), true)
+                .build();
+    }
 
-            // Extract client roles for your specific client
-            Map<String, Object> resourceAccess = jwt.getClaim("resource_access");
-            if (resourceAccess != null) {
-                // Check for streaming-app client roles
-                if (resourceAccess.containsKey("streaming-app")) {
-                    Map<String, Object> clientAccess = (Map<String, Object>) resourceAccess.get("streaming-app");
-                    if (clientAccess.containsKey("roles")) {
-                        List<String> clientRoles = (List<String>) clientAccess.get("roles");
-                        clientRoles.forEach(role ->
-                                authorities.add(new SimpleGrantedAuthority("ROLE_APP_" + role)));
-                    }
-                }
+    @Bean
+    public JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource,
+                                 OAuth2ResourceServerProperties resourceServerProperties,
+                                 UserServiceProperties properties, MeterRegistry meterRegistry) {
+        OAuth2ResourceServerProperties.Jwt jwt = resourceServerProperties.getJwt();
+        NimbusJwtDecoder decoder = verifyingDecoder(jwkSource, jwt.getJwsAlgorithms());
 
-//                // Check for streaming-admin client roles if needed
-//                if (resourceAccess.containsKey("streaming-admin")) {
-//                    Map<String, Object> adminAccess = (Map<String, Object>) resourceAccess.get("streaming-admin");
-//                    if (adminAccess.containsKey("roles")) {
-//                        List<String> adminRoles = (List<String>) adminAccess.get("roles");
-//                        adminRoles.forEach(role ->
-//                                authorities.add(new SimpleGrantedAuthority("ROLE_ADMIN_" + role)));
-//                    }
-//                }
-            }
+        List<OAuth2TokenValidator<Jwt>> validators = new ArrayList<>();
+        validators.add(StringUtils.hasText(jwt.getIssuerUri())
+                ? JwtValidators.createDefaultWithIssuer(jwt.getIssuerUri())
+                : JwtValidators.createDefault());
+        if (!jwt.getAudiences().isEmpty()) {
+            List<String> audiences = jwt.getAudiences();
+            validators.add(new JwtClaimValidator<List<String>>(JwtClaimNames.AUD,
+                    aud -> aud != null && !Collections.disjoint(aud, audiences)));
+        }
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(validators));
 
-            return authorities;
+        UserServiceProperties.Security.TokenCache tokenCache = properties.getSecurity().getTokenCache();
+        if (!tokenCache.isEnabled()) {
+            return decoder;
+        }
+        return new CachingJwtDecoder(decoder, tokenCache.getMaxSize(), tokenCache.getMaxTtl(), meterRegistry);
+    }
+
+    /**
+     * Creates a decoder verifying signatures with keys from the given source.
+     * Claims are left to the decoder's validator.
+     */
+    public static NimbusJwtDecoder verifyingDecoder(JWKSource<SecurityContext> jwkSource, List<String> jwsAlgorithms) {
+        Set<JWSAlgorithm> algorithms = new HashSet<>();
+        jwsAlgorithms.forEach(algorithm -> algorithms.add(JWSAlgorithm.parse(algorithm)));
+
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithms, jwkSource));
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
         });
-        return converter;
+        return new NimbusJwtDecoder(processor);
     }
-};
+}
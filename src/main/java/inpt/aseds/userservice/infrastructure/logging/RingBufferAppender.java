@@ -0,0 +1,193 @@
+package inpt.aseds.userservice.infrastructure.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, never-blocking asynchronous appender.
+ *
+ * Logging threads only offer the event to a fixed-size queue; a single worker
+ * thread drains it into the attached appenders. Once fewer than
+ * {@code discardingThreshold} slots are left, INFO and lower events are
+ * dropped so warnings and errors keep their room, and when the queue is full
+ * every new event is dropped instead of stalling the caller. Drops are counted
+ * per level and exported as metrics by LoggingMetrics.
+ */
+public class RingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    private static final Level[] LEVELS = {Level.TRACE, Level.DEBUG, Level.INFO, Level.WARN, Level.ERROR};
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final AtomicLongArray dropped = new AtomicLongArray(LEVELS.length);
+
+    private int queueSize = 8192;
+    private int discardingThreshold = -1;
+    private int maxFlushTime = 1000;
+
+    private BlockingQueue<ILoggingEvent> queue;
+    private Thread worker;
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (queueSize < 1) {
+            addError("Invalid queue size [" + queueSize + "]");
+            return;
+        }
+        if (discardingThreshold < 0) {
+            discardingThreshold = queueSize / 5;
+        }
+        queue = new ArrayBlockingQueue<>(queueSize);
+        worker = new Thread(this::drain, "log-" + getName());
+        worker.setDaemon(true);
+        super.start();
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        worker.interrupt();
+        try {
+            worker.join(maxFlushTime);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            addWarn("Worker did not finish flushing " + queue.size() + " events within " + maxFlushTime + " ms");
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (queue.remainingCapacity() < discardingThreshold && event.getLevel().toInt() <= Level.INFO_INT) {
+            countDrop(event);
+            return;
+        }
+        // Capture thread name, MDC and formatted message before handing off
+        event.prepareForDeferredProcessing();
+        if (!queue.offer(event)) {
+            countDrop(event);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (isStarted()) {
+                appenders.appendLoopOnAppenders(queue.take());
+            }
+        } catch (InterruptedException e) {
+            // Stopping; flush what is left below
+        }
+        ILoggingEvent event;
+        while ((event = queue.poll()) != null) {
+            appenders.appendLoopOnAppenders(event);
+        }
+    }
+
+    private void countDrop(ILoggingEvent event) {
+        int level = event.getLevel().toInt();
+        for (int i = 0; i < LEVELS.length; i++) {
+            if (LEVELS[i].toInt() == level) {
+                dropped.incrementAndGet(i);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Events of the given level dropped since start.
+     */
+    public long getDroppedCount(Level level) {
+        for (int i = 0; i < LEVELS.length; i++) {
+            if (LEVELS[i].equals(level)) {
+                return dropped.get(i);
+            }
+        }
+        return 0;
+    }
+
+    public static Level[] levels() {
+        return LEVELS.clone();
+    }
+
+    public int getQueueDepth() {
+        return queue == null ? 0 : queue.size();
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public int getDiscardingThreshold() {
+        return discardingThreshold;
+    }
+
+    public void setDiscardingThreshold(int discardingThreshold) {
+        this.discardingThreshold = discardingThreshold;
+    }
+
+    public int getMaxFlushTime() {
+        return maxFlushTime;
+    }
+
+    public void setMaxFlushTime(int maxFlushTime) {
+        this.maxFlushTime = maxFlushTime;
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> newAppender) {
+        appenders.addAppender(newAppender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
@@ -0,0 +1,179 @@
+package inpt.aseds.userservice.infrastructure.messaging;
+
+import inpt.aseds.userservice.application.config.UserServiceProperties;
+import inpt.aseds.userservice.domain.model.OutboxEvent;
+import inpt.aseds.userservice.domain.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Relays outbox events to Kafka in batches.
+ *
+ * Each batch is read under a transaction-scoped advisory lock, so that only
+ * one instance relays at a time, sent keyed by user ID so that events of one
+ * user stay ordered within a partition, and deleted in the same transaction
+ * once every send is acknowledged. A failed batch is rolled back and retried
+ * on the next run. The next batch is only read once the previous one has been
+ * acknowledged and deleted, so together with the idempotent producer this
+ * gives at-least-once delivery without reordering, also with several
+ * instances running; instances that do not get the lock skip their run.
+ *
+ * Runs on its own thread every app.user.outbox.poll-interval rather than on
+ * the shared task scheduler, since a send to an unreachable broker blocks for
+ * up to max.block.ms and would hold up the other scheduled jobs.
+ *
+ * Exports user.outbox.lag (age of the oldest pending event),
+ * user.outbox.batch.size, user.outbox.events.published and
+ * user.outbox.relay.failures.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.user.outbox", name = "relay-enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserServiceProperties.Outbox config;
+    private final ScheduledExecutorService executor;
+
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final DistributionSummary batchSize;
+    private final Counter published;
+    private final Counter failures;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, String> kafkaTemplate,
+                       PlatformTransactionManager transactionManager,
+                       UserServiceProperties properties,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.config = properties.getOutbox();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        TimeGauge.builder("user.outbox.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::doubleValue)
+                .description("Age of the oldest event waiting in the outbox")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("user.outbox.batch.size")
+                .description("Number of events relayed per batch")
+                .register(meterRegistry);
+        this.published = Counter.builder("user.outbox.events.published")
+                .register(meterRegistry);
+        this.failures = Counter.builder("user.outbox.relay.failures")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        long pollInterval = config.getPollInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::relay, pollInterval, pollInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Drains the outbox until a batch comes back short or a send fails, or
+     * does nothing while another instance holds the relay lock.
+     */
+    public void relay() {
+        try {
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed == config.getBatchSize());
+        } catch (Exception e) {
+            failures.increment();
+            log.warn("Outbox relay failed, retrying on next run: {}", e.getMessage());
+        } finally {
+            updateLag();
+        }
+    }
+
+    /**
+     * Publishes and deletes one batch of events.
+     *
+     * @return the number of relayed events
+     */
+    int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            if (!outboxEventRepository.tryLockRelay()) {
+                return 0;
+            }
+            List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(config.getBatchSize());
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            CompletableFuture<?>[] sends = new CompletableFuture<?>[batch.size()];
+            for (int i = 0; i < batch.size(); i++) {
+                OutboxEvent event = batch.get(i);
+                CompletableFuture<SendResult<String, String>> send =
+                        kafkaTemplate.send(config.getTopic(), event.getUserId().toString(), event.getPayload());
+                sends[i] = send;
+            }
+            awaitAll(sends);
+
+            outboxEventRepository.deleteAllInBatch(batch);
+            return batch.size();
+        });
+
+        int count = relayed != null ? relayed : 0;
+        if (count > 0) {
+            batchSize.record(count);
+            published.increment(count);
+        }
+        return count;
+    }
+
+    private void awaitAll(CompletableFuture<?>[] sends) {
+        try {
+            CompletableFuture.allOf(sends).get(config.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing outbox events", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Failed to publish outbox events", e);
+        }
+    }
+
+    private void updateLag() {
+        try {
+            Date oldest = outboxEventRepository.findOldestCreatedAt();
+            lagMillis.set(oldest == null ? 0 : Math.max(0, System.currentTimeMillis() - oldest.getTime()));
+        } catch (Exception e) {
+            log.debug("Could not compute outbox lag: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package inpt.aseds.userservice.infrastructure.metrics;
+
+/**
+ * Accumulates the JDBC time spent on behalf of one gRPC call.
+ *
+ * The metrics interceptor binds the call's instance to the thread for the
+ * duration of each listener callback; {@link HibernateDbTimeListener} adds to
+ * whichever instance is bound. Work handed off to other threads (such as the
+ * ExportUsers stream) is not attributed to the call.
+ */
+public final class CallDbTime {
+
+    private static final ThreadLocal<CallDbTime> CURRENT = new ThreadLocal<>();
+
+    private long nanos;
+    private int statements;
+
+    CallDbTime bind() {
+        CallDbTime previous = CURRENT.get();
+        CURRENT.set(this);
+        return previous;
+    }
+
+    static void restore(CallDbTime previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    static void add(long elapsedNanos) {
+        CallDbTime current = CURRENT.get();
+        if (current != null) {
+            current.nanos += elapsedNanos;
+            current.statements++;
+        }
+    }
+
+    long nanos() {
+        return nanos;
+    }
+
+    int statements() {
+        return statements;
+    }
+}
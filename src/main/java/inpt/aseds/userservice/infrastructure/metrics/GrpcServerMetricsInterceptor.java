@@ -0,0 +1,187 @@
+package inpt.aseds.userservice.infrastructure.metrics;
+
+import com.google.protobuf.MessageLite;
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records per-RPC server metrics, tagged by service and method:
+ * <ul>
+ *   <li>grpc.server.calls - call latency with a percentile histogram, also tagged by status</li>
+ *   <li>grpc.server.calls.active - calls in flight</li>
+ *   <li>grpc.server.request.size / grpc.server.response.size - serialized message sizes</li>
+ *   <li>grpc.server.db.time / grpc.server.db.statements - JDBC time and statements per call</li>
+ * </ul>
+ * Meters are resolved once per method and status, so the per-call cost is a few
+ * map lookups and counter updates.
+ */
+public class GrpcServerMetricsInterceptor implements ServerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, MethodMeters> metersByMethod = new ConcurrentHashMap<>();
+
+    public GrpcServerMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        MethodMeters meters = metersByMethod.computeIfAbsent(
+                call.getMethodDescriptor().getFullMethodName(), name -> new MethodMeters(call.getMethodDescriptor()));
+        CallDbTime dbTime = new CallDbTime();
+        long start = System.nanoTime();
+        AtomicBoolean finished = new AtomicBoolean();
+        meters.active.incrementAndGet();
+
+        ServerCall<ReqT, RespT> measuredCall = new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void sendMessage(RespT message) {
+                if (message instanceof MessageLite messageLite) {
+                    meters.responseSize.record(messageLite.getSerializedSize());
+                }
+                super.sendMessage(message);
+            }
+
+            @Override
+            public void close(Status status, Metadata trailers) {
+                try {
+                    super.close(status, trailers);
+                } finally {
+                    if (finished.compareAndSet(false, true)) {
+                        meters.finish(status.getCode(), System.nanoTime() - start, dbTime);
+                    }
+                }
+            }
+        };
+
+        ServerCall.Listener<ReqT> delegate;
+        CallDbTime previous = dbTime.bind();
+        try {
+            delegate = next.startCall(measuredCall, headers);
+        } catch (RuntimeException e) {
+            if (finished.compareAndSet(false, true)) {
+                meters.finish(Status.Code.UNKNOWN, System.nanoTime() - start, dbTime);
+            }
+            throw e;
+        } finally {
+            CallDbTime.restore(previous);
+        }
+
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(delegate) {
+            @Override
+            public void onMessage(ReqT message) {
+                if (message instanceof MessageLite messageLite) {
+                    meters.requestSize.record(messageLite.getSerializedSize());
+                }
+                CallDbTime previous = dbTime.bind();
+                try {
+                    super.onMessage(message);
+                } finally {
+                    CallDbTime.restore(previous);
+                }
+            }
+
+            @Override
+            public void onHalfClose() {
+                CallDbTime previous = dbTime.bind();
+                try {
+                    super.onHalfClose();
+                } finally {
+                    CallDbTime.restore(previous);
+                }
+            }
+
+            @Override
+            public void onCancel() {
+                try {
+                    super.onCancel();
+                } finally {
+                    if (finished.compareAndSet(false, true)) {
+                        meters.finish(Status.Code.CANCELLED, System.nanoTime() - start, dbTime);
+                    }
+                }
+            }
+        };
+    }
+
+    private final class MethodMeters {
+
+        private final Tags tags;
+        private final AtomicInteger active = new AtomicInteger();
+        private final Map<Status.Code, Timer> latencyByStatus = new EnumMap<>(Status.Code.class);
+        private final DistributionSummary requestSize;
+        private final DistributionSummary responseSize;
+        private final Timer dbTime;
+        private final DistributionSummary dbStatements;
+
+        private MethodMeters(MethodDescriptor<?, ?> method) {
+            this.tags = Tags.of("service", String.valueOf(method.getServiceName()),
+                    "method", String.valueOf(method.getBareMethodName()));
+            Gauge.builder("grpc.server.calls.active", active, AtomicInteger::get)
+                    .description("gRPC calls in flight")
+                    .tags(tags)
+                    .register(meterRegistry);
+            this.requestSize = DistributionSummary.builder("grpc.server.request.size")
+                    .description("Serialized size of received request messages")
+                    .baseUnit("bytes")
+                    .tags(tags)
+                    .register(meterRegistry);
+            this.responseSize = DistributionSummary.builder("grpc.server.response.size")
+                    .description("Serialized size of sent response messages")
+                    .baseUnit("bytes")
+                    .tags(tags)
+                    .register(meterRegistry);
+            this.dbTime = Timer.builder("grpc.server.db.time")
+                    .description("JDBC execution time spent by a call on its own thread")
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(meterRegistry);
+            this.dbStatements = DistributionSummary.builder("grpc.server.db.statements")
+                    .description("JDBC statements executed by a call on its own thread")
+                    .tags(tags)
+                    .register(meterRegistry);
+        }
+
+        private Timer latency(Status.Code code) {
+            synchronized (latencyByStatus) {
+                return latencyByStatus.computeIfAbsent(code, status -> Timer.builder("grpc.server.calls")
+                        .description("gRPC call latency, from the start of the call until it is closed")
+                        .tags(tags)
+                        .tag("status", status.name())
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(Duration.ofMillis(1))
+                        .maximumExpectedValue(Duration.ofSeconds(30))
+                        .register(meterRegistry));
+            }
+        }
+
+        private void finish(Status.Code code, long elapsedNanos, CallDbTime callDbTime) {
+            active.decrementAndGet();
+            latency(code).record(elapsedNanos, TimeUnit.NANOSECONDS);
+            dbTime.record(callDbTime.nanos(), TimeUnit.NANOSECONDS);
+            dbStatements.record(callDbTime.statements());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package inpt.aseds.userservice.infrastructure.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Times JDBC statement and batch execution and charges it to the gRPC call
+ * bound to the current thread. Hibernate creates one instance per session
+ * (hibernate.session.events.auto), so the start timestamps are not shared.
+ */
+public class HibernateDbTimeListener implements SessionEventListener {
+
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        CallDbTime.add(System.nanoTime() - statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        CallDbTime.add(System.nanoTime() - batchStart);
+    }
+}
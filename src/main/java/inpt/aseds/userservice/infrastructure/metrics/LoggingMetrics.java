@@ -0,0 +1,52 @@
+package inpt.aseds.userservice.infrastructure.metrics;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import inpt.aseds.userservice.infrastructure.logging.RingBufferAppender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+
+/**
+ * Exports the queue depth and per-level drop counts of the asynchronous log
+ * appenders attached to the root logger (logging.async.queue.depth,
+ * logging.async.dropped).
+ */
+@Component
+public class LoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        for (Iterator<Appender<ILoggingEvent>> it = root.iteratorForAppenders(); it.hasNext(); ) {
+            if (it.next() instanceof RingBufferAppender appender) {
+                bind(registry, appender);
+            }
+        }
+    }
+
+    private void bind(MeterRegistry registry, RingBufferAppender appender) {
+        Gauge.builder("logging.async.queue.depth", appender, RingBufferAppender::getQueueDepth)
+                .description("Log events waiting to be written")
+                .tag("appender", appender.getName())
+                .register(registry);
+        for (Level level : RingBufferAppender.levels()) {
+            FunctionCounter.builder("logging.async.dropped", appender, a -> a.getDroppedCount(level))
+                    .description("Log events dropped because the queue was full or above its discarding threshold")
+                    .tag("appender", appender.getName())
+                    .tag("level", level.levelStr)
+                    .register(registry);
+        }
+    }
+}
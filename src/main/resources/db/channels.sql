@@ -0,0 +1,5 @@
+-- Partial index backing ChannelRepository.findLiveChannels, which rebuilds the
+-- in-memory live channel index; only live rows are indexed, so it stays small.
+CREATE INDEX IF NOT EXISTS idx_channels_live
+    ON channels (id)
+    WHERE is_live = true;
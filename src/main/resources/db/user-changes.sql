@@ -0,0 +1,5 @@
+-- Index backing UserRepository.streamUsernamesAndEmailsUpdatedSince, which the
+-- existence filter polls every few seconds for rows written by other instances;
+-- without it each refresh would scan the whole table.
+CREATE INDEX IF NOT EXISTS idx_user_table_updated_at
+    ON user_table (updated_at);
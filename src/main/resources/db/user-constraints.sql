@@ -0,0 +1,22 @@
+-- Unique indexes on user_table that the single-statement update (UserRepositoryCustom.updateProfile)
+-- and ImportUsers' INSERT ... ON CONFLICT (username) rely on; neither checks uniqueness itself.
+-- Runs after Hibernate schema creation (spring.jpa.defer-datasource-initialization). Hibernate no
+-- longer adds them on update (hibernate.schema_update.unique_constraint_strategy: SKIP), because on a
+-- table with duplicates it only logs a warning and carries on without them.
+--
+-- Existing duplicates make these statements fail, and UserTableConstraintsCheck then stops startup
+-- and lists them. Find them with:
+--   SELECT username, count(*) FROM user_table GROUP BY username HAVING count(*) > 1;
+--   SELECT email, count(*) FROM user_table GROUP BY email HAVING count(*) > 1;
+--
+-- Databases created before the named constraints still carry Hibernate's auto-named unique constraint
+-- on email (uk + a hash), which duplicates uk_user_email. It is harmless but indexes every write twice;
+-- find it and drop it by hand:
+--   SELECT conname FROM pg_constraint
+--   WHERE conrelid = 'user_table'::regclass AND contype = 'u' AND conname <> 'uk_user_email'
+--     AND conkey = ARRAY[(SELECT attnum FROM pg_attribute
+--                         WHERE attrelid = 'user_table'::regclass AND attname = 'email')];
+--   ALTER TABLE user_table DROP CONSTRAINT <conname>;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_user_username ON user_table (username);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_user_email ON user_table (email);
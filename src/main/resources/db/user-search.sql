@@ -0,0 +1,8 @@
+-- Trigram index backing SearchUsers (UserRepository.searchActiveUsersByUsername).
+-- Runs after Hibernate schema creation (spring.jpa.defer-datasource-initialization).
+-- Search still works without it, only falls back to a sequential scan.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_user_table_username_trgm
+    ON user_table USING gin (username gin_trgm_ops)
+    WHERE is_active = true;
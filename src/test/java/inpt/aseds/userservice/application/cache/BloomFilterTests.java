@@ -0,0 +1,60 @@
+package inpt.aseds.userservice.application.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BloomFilterTests {
+
+    private static final int INSERTIONS = 100_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Test
+    void reportsEveryAddedValue() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, FALSE_POSITIVE_RATE);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put("user_" + i);
+        }
+
+        for (int i = 0; i < INSERTIONS; i++) {
+            assertThat(filter.mightContain("user_" + i)).as("user_%d", i).isTrue();
+        }
+        assertThat(filter.insertions()).isEqualTo(INSERTIONS);
+    }
+
+    @Test
+    void keepsFalsePositivesNearTheTargetRateWhenFull() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, FALSE_POSITIVE_RATE);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put("user_" + i);
+        }
+
+        int falsePositives = 0;
+        int probes = 200_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("absent_" + i)) {
+                falsePositives++;
+            }
+        }
+        double rate = (double) falsePositives / probes;
+        assertThat(rate).isBetween(FALSE_POSITIVE_RATE / 2, FALSE_POSITIVE_RATE * 1.5);
+        assertThat(filter.expectedFalsePositiveRate()).isBetween(FALSE_POSITIVE_RATE / 2, FALSE_POSITIVE_RATE * 1.5);
+    }
+
+    @Test
+    void reportsNothingWhenEmpty() {
+        BloomFilter filter = new BloomFilter(1000, FALSE_POSITIVE_RATE);
+
+        assertThat(filter.mightContain("anyone")).isFalse();
+        assertThat(filter.expectedFalsePositiveRate()).isZero();
+    }
+
+    @Test
+    void rejectsInvalidSizing() {
+        assertThatThrownBy(() -> new BloomFilter(0, FALSE_POSITIVE_RATE))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(INSERTIONS, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,56 @@
+package inpt.aseds.userservice.application.cache;
+
+import inpt.aseds.userservice.application.config.UserServiceProperties;
+import inpt.aseds.userservice.domain.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserCacheTests {
+
+    private final UserCache cache = new UserCache(new UserServiceProperties(), new SimpleMeterRegistry());
+
+    @Test
+    void servesAUsernameFromTheIdCache() {
+        User alice = user(1L, "alice");
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.getByUsername("alice", username -> {
+            loads.incrementAndGet();
+            return alice;
+        })).isSameAs(alice);
+        assertThat(cache.getByUsername("alice", username -> {
+            loads.incrementAndGet();
+            return null;
+        })).isSameAs(alice);
+        assertThat(cache.getById(1L, id -> null)).isSameAs(alice);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void rejectsTheOldUsernameOfARenamedUser() {
+        cache.getByUsername("alice", username -> user(1L, "alice"));
+        // Renamed, with only the ID evicted: the old username still maps to the ID
+        cache.evict(1L);
+        User renamed = user(1L, "alicia");
+        assertThat(cache.getById(1L, id -> renamed)).isSameAs(renamed);
+
+        AtomicInteger loads = new AtomicInteger();
+        assertThat(cache.getByUsername("alice", username -> {
+            loads.incrementAndGet();
+            return null;
+        })).isNull();
+        assertThat(loads).hasValue(1);
+        assertThat(cache.getByUsername("alicia", username -> renamed)).isSameAs(renamed);
+    }
+
+    private static User user(Long id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        return user;
+    }
+}
@@ -0,0 +1,122 @@
+package inpt.aseds.userservice.application.cache;
+
+import inpt.aseds.userservice.application.config.UserServiceProperties;
+import inpt.aseds.userservice.domain.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserExistenceFilterTests {
+
+    private final UserRepository repository = mock(UserRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final UserServiceProperties properties = new UserServiceProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private UserExistenceFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        properties.getExistenceFilter().setExpectedInsertions(1000);
+        properties.getExistenceFilter().setMaxStaleness(Duration.ofMinutes(1));
+        filter = new UserExistenceFilter(repository, transactionManager, properties, meterRegistry);
+    }
+
+    @Test
+    void reportsEveryValueAsPossiblyPresentUntilBuilt() {
+        assertThat(filter.mightContainUsername("alice")).isTrue();
+        assertThat(filter.mightContainEmail("alice@example.com")).isTrue();
+    }
+
+    @Test
+    void answersFromTheFilterOnceBuilt() {
+        when(repository.streamUsernamesAndEmails()).thenAnswer(invocation -> rows("alice"));
+
+        filter.rebuild();
+
+        assertThat(filter.mightContainUsername("alice")).isTrue();
+        assertThat(filter.mightContainEmail("alice@example.com")).isTrue();
+        assertThat(filter.mightContainUsername("bob")).isFalse();
+        assertThat(filter.mightContainEmail("bob@example.com")).isFalse();
+    }
+
+    @Test
+    void keepsValuesAddedWhileARebuildIsRunning() {
+        when(repository.streamUsernamesAndEmails()).thenAnswer(invocation -> rows("alice"));
+        filter.rebuild();
+
+        // carol signs up while the second build is streaming the table, after her row was read
+        AtomicBoolean seenDuringRebuild = new AtomicBoolean();
+        when(repository.streamUsernamesAndEmails()).thenAnswer(invocation -> rows("alice", "bob").peek(row -> {
+            if ("bob".equals(row[0])) {
+                filter.add("carol", "carol@example.com");
+                seenDuringRebuild.set(filter.mightContainUsername("carol"));
+            }
+        }));
+        filter.rebuild();
+
+        assertThat(seenDuringRebuild).isTrue();
+        assertThat(filter.mightContainUsername("carol")).isTrue();
+        assertThat(filter.mightContainEmail("carol@example.com")).isTrue();
+        assertThat(filter.mightContainUsername("bob")).isTrue();
+    }
+
+    @Test
+    void picksUpRowsWrittenElsewhereOnRefresh() {
+        properties.getExistenceFilter().setRefreshOverlap(Duration.ofSeconds(30));
+        when(repository.streamUsernamesAndEmails()).thenAnswer(invocation -> rows("alice"));
+        long beforeBuild = System.currentTimeMillis();
+        filter.rebuild();
+
+        Date updatedAt = new Date(System.currentTimeMillis() + 60_000);
+        when(repository.streamUsernamesAndEmailsUpdatedSince(any()))
+                .thenAnswer(invocation -> Stream.<Object[]>of(new Object[]{"dave", "dave@example.com", updatedAt}));
+        filter.refresh();
+        filter.refresh();
+
+        assertThat(filter.mightContainUsername("dave")).isTrue();
+        assertThat(filter.mightContainEmail("dave@example.com")).isTrue();
+        ArgumentCaptor<Date> since = ArgumentCaptor.forClass(Date.class);
+        verify(repository, times(2)).streamUsernamesAndEmailsUpdatedSince(since.capture());
+        // the first refresh reads from the build's start, the next from the newest row, both less the overlap
+        assertThat(since.getAllValues().get(0).getTime()).isBetween(beforeBuild - 30_000, beforeBuild - 29_000);
+        assertThat(since.getAllValues().get(1)).isEqualTo(new Date(updatedAt.getTime() - 30_000));
+    }
+
+    @Test
+    void answersMaybeOnceRefreshesStopSucceeding() throws InterruptedException {
+        properties.getExistenceFilter().setMaxStaleness(Duration.ofMillis(50));
+        when(repository.streamUsernamesAndEmails()).thenAnswer(invocation -> rows("alice"));
+        when(repository.streamUsernamesAndEmailsUpdatedSince(any()))
+                .thenThrow(new IllegalStateException("Connection refused"));
+        filter.rebuild();
+        assertThat(filter.mightContainUsername("bob")).isFalse();
+
+        Thread.sleep(100);
+        filter.refresh();
+
+        assertThat(filter.mightContainUsername("bob")).isTrue();
+        assertThat(meterRegistry.get("user.existence.filter.checks")
+                .tag("filter", "username").tag("result", "stale").counter().count()).isEqualTo(1);
+    }
+
+    private static Stream<Object[]> rows(String... usernames) {
+        return Stream.of(usernames).map(username -> new Object[]{username, username + "@example.com"});
+    }
+}
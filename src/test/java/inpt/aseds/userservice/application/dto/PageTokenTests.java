@@ -0,0 +1,56 @@
+package inpt.aseds.userservice.application.dto;
+
+import inpt.aseds.userservice.domain.exceptions.UserValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageTokenTests {
+
+    @Test
+    void roundTripsAListingCursor() {
+        PageToken token = PageToken.afterId(Long.MAX_VALUE);
+
+        assertThat(PageToken.decode(token.encode())).isEqualTo(token);
+    }
+
+    @Test
+    void roundTripsASearchCursor() {
+        PageToken token = PageToken.afterSearchResult("ali", "alice", 42);
+
+        assertThat(token.rank()).isEqualTo(1);
+        assertThat(token.length()).isEqualTo(5);
+        assertThat(PageToken.decode(token.encode())).isEqualTo(token);
+    }
+
+    @Test
+    void bindsASearchCursorToItsQuery() {
+        PageToken token = PageToken.decode(PageToken.afterSearchResult("ali", "alice", 42).encode());
+
+        assertThat(token.queryHash()).isEqualTo("ali".hashCode());
+        assertThat(token.queryHash()).isNotEqualTo("bob".hashCode());
+    }
+
+    @Test
+    void ranksExactThenPrefixThenInfixMatches() {
+        assertThat(PageToken.searchRank("alice", "alice")).isEqualTo(0);
+        assertThat(PageToken.searchRank("ali", "alice")).isEqualTo(1);
+        assertThat(PageToken.searchRank("lic", "alice")).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        String otherVersion = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("v0:0:0:1:0".getBytes(StandardCharsets.UTF_8));
+
+        for (String token : new String[] {"not base64!", otherVersion, PageToken.afterId(1).encode() + "AA"}) {
+            assertThatThrownBy(() -> PageToken.decode(token))
+                    .isInstanceOf(UserValidationException.class)
+                    .hasMessageContaining("Invalid page token");
+        }
+    }
+}
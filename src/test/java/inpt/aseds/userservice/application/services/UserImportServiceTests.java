@@ -0,0 +1,84 @@
+package inpt.aseds.userservice.application.services;
+
+import inpt.aseds.userservice.application.cache.UserCache;
+import inpt.aseds.userservice.application.cache.UserExistenceFilter;
+import inpt.aseds.userservice.application.cache.UserResponseCache;
+import inpt.aseds.userservice.application.config.UserServiceProperties;
+import inpt.aseds.userservice.application.dto.ImportSummary;
+import inpt.aseds.userservice.application.outbox.UserOutbox;
+import inpt.aseds.userservice.domain.model.User;
+import inpt.aseds.userservice.domain.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserImportServiceTests {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final UserServiceProperties properties = new UserServiceProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<String>> statements = new ArrayList<>();
+
+    @Test
+    void retriesABatchThatViolatesAConstraintOneRecordAtATime() {
+        properties.getImport().setBatchSize(3);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        // bob's email belongs to another user; carol already exists and is updated
+        when(userRepository.upsertAll(any())).thenAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            statements.add(users.stream().map(User::getUsername).toList());
+            if (users.stream().anyMatch(user -> user.getUsername().equals("bob"))) {
+                throw new DataIntegrityViolationException("duplicate", new ConstraintViolationException(
+                        "duplicate", new SQLException("duplicate key"), User.EMAIL_CONSTRAINT));
+            }
+            for (User user : users) {
+                user.setId((long) user.getUsername().length());
+                user.setVersion(user.getUsername().equals("carol") ? 1 : 0);
+            }
+            return users;
+        });
+
+        UserImportService.UserImport userImport = importService().startImport();
+        for (String username : List.of("alice", "bob", "carol")) {
+            userImport.add(record(username));
+        }
+        ImportSummary summary = userImport.finish();
+
+        assertThat(statements).containsExactly(
+                List.of("alice", "bob", "carol"), List.of("alice"), List.of("bob"), List.of("carol"));
+        assertThat(summary.received()).isEqualTo(3);
+        assertThat(summary.created()).isEqualTo(1);
+        assertThat(summary.updated()).isEqualTo(1);
+        assertThat(summary.failed()).isEqualTo(1);
+        assertThat(summary.failures()).containsExactly(
+                new ImportSummary.Failure(1, "bob", "Email is already taken"));
+        assertThat(meterRegistry.get("user.import.records").tag("result", "failed").counter().count())
+                .isEqualTo(1);
+    }
+
+    private UserImportService importService() {
+        return new UserImportService(userRepository, new ValidationService(properties), properties,
+                new UserCache(properties, meterRegistry), new UserResponseCache(properties, meterRegistry),
+                mock(UserExistenceFilter.class), mock(UserOutbox.class), transactionManager, meterRegistry);
+    }
+
+    private static User record(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        return user;
+    }
+}
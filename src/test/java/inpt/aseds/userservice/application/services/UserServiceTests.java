@@ -0,0 +1,147 @@
+package inpt.aseds.userservice.application.services;
+
+import inpt.aseds.userservice.application.cache.UserCache;
+import inpt.aseds.userservice.application.cache.UserExistenceFilter;
+import inpt.aseds.userservice.application.cache.UserResponseCache;
+import inpt.aseds.userservice.application.config.UserServiceProperties;
+import inpt.aseds.userservice.application.dto.PageToken;
+import inpt.aseds.userservice.application.outbox.UserOutbox;
+import inpt.aseds.userservice.domain.exceptions.UserConflictException;
+import inpt.aseds.userservice.domain.exceptions.UserNotFoundException;
+import inpt.aseds.userservice.domain.exceptions.UserOperationException;
+import inpt.aseds.userservice.domain.exceptions.UserValidationException;
+import inpt.aseds.userservice.domain.model.User;
+import inpt.aseds.userservice.domain.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class UserServiceTests {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserExistenceFilter existenceFilter = mock(UserExistenceFilter.class);
+    private final UserOutbox userOutbox = mock(UserOutbox.class);
+    private final UserService userService = userService(new UserServiceProperties());
+
+    @Test
+    void continuesASearchFromItsCursor() {
+        when(userRepository.searchActiveUsersByUsername(eq("ali"), eq("%ali%"), eq("ali%"), any()))
+                .thenReturn(new PageImpl<>(List.of(user(7L, "ali"), user(3L, "alice")), PageRequest.of(0, 2), 3));
+
+        String token = userService.searchActiveUsers("ali", 0, 2, "", false).nextPageToken();
+        userService.searchActiveUsers(" ali ", 0, 2, token, false);
+
+        assertThat(PageToken.decode(token)).isEqualTo(PageToken.afterSearchResult("ali", "alice", 3L));
+        verify(userRepository).searchActiveUsersByUsernameAfter("ali", "%ali%", "ali%", 1, 5, 3L, 3);
+    }
+
+    @Test
+    void rejectsASearchCursorReplayedAgainstAnotherQuery() {
+        String token = PageToken.afterSearchResult("ali", "alice", 3L).encode();
+
+        assertThatThrownBy(() -> userService.searchActiveUsers("bob", 0, 2, token, false))
+                .isInstanceOf(UserValidationException.class)
+                .hasMessageContaining("does not match the search query");
+        verify(userRepository, never()).searchActiveUsersByUsernameAfter(
+                anyString(), anyString(), anyString(), anyInt(), anyInt(), anyLong(), anyInt());
+    }
+
+    @Test
+    void rejectsAnUpdateAgainstAStaleVersion() {
+        when(userRepository.updateProfile(eq(1L), any(), eq(3L))).thenReturn(Optional.empty());
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> userService.updateUser(1L, bio("Hello"), 3L))
+                .isInstanceOf(UserConflictException.class);
+        verifyNoInteractions(userOutbox);
+    }
+
+    @Test
+    void reportsAnUpdateOfAMissingUserAsNotFound() {
+        when(userRepository.updateProfile(eq(1L), any(), any())).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> userService.updateUser(1L, bio("Hello"), 3L))
+                .isInstanceOf(UserNotFoundException.class);
+        assertThatThrownBy(() -> userService.updateUser(1L, bio("Hello")))
+                .isInstanceOf(UserNotFoundException.class);
+        verifyNoInteractions(userOutbox);
+    }
+
+    @Test
+    void translatesUniqueViolationsToAlreadyTaken() {
+        User alice = new User();
+        alice.setUsername("alice");
+        User aliceEmail = new User();
+        aliceEmail.setEmail("alice@example.com");
+        when(userRepository.updateProfile(eq(1L), argThat(changes -> changes.getUsername() != null), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate", new ConstraintViolationException(
+                        "duplicate", new SQLException("duplicate key"), User.USERNAME_CONSTRAINT)));
+        // Without a constraint name the violated column is read from the driver's message
+        when(userRepository.updateProfile(eq(1L), argThat(changes -> changes.getEmail() != null), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate", new SQLException(
+                        "ERROR: duplicate key value violates unique constraint\n"
+                                + "  Detail: Key (email)=(alice@example.com) already exists.")));
+
+        assertThatThrownBy(() -> userService.updateUser(1L, alice))
+                .isInstanceOf(UserOperationException.class)
+                .hasMessageContaining("Username is already taken");
+        assertThatThrownBy(() -> userService.updateUser(1L, aliceEmail))
+                .isInstanceOf(UserOperationException.class)
+                .hasMessageContaining("Email is already taken");
+    }
+
+    @Test
+    void returnsTheCurrentUserForAnEmptyUpdateWithoutWriting() {
+        User current = user(1L, "alice");
+        current.setVersion(3);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(current));
+
+        assertThat(userService.updateUser(1L, new User(), 3L)).isSameAs(current);
+        assertThatThrownBy(() -> userService.updateUser(1L, new User(), 2L))
+                .isInstanceOf(UserConflictException.class);
+        verify(userRepository, never()).updateProfile(any(), any(), any());
+        verifyNoInteractions(existenceFilter, userOutbox);
+    }
+
+    private UserService userService(UserServiceProperties properties) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        return new UserService(userRepository, new ValidationService(properties), properties,
+                new UserCache(properties, meterRegistry), new UserResponseCache(properties, meterRegistry),
+                mock(EntityManager.class), userOutbox, existenceFilter, meterRegistry);
+    }
+
+    private static User bio(String bio) {
+        User updates = new User();
+        updates.setBio(bio);
+        return updates;
+    }
+
+    private static User user(Long id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        return user;
+    }
+}
@@ -0,0 +1,68 @@
+package inpt.aseds.userservice.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import inpt.aseds.userservice.application.outbox.UserOutbox;
+import inpt.aseds.userservice.domain.model.User;
+import inpt.aseds.userservice.domain.repository.OutboxEventRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Realistic user entities and collaborator stand-ins shared by the JMH benchmarks.
+ */
+final class BenchmarkFixtures {
+
+    private static final String BIO = "Speedrunner and variety streamer. Live most evenings with retro platformers, "
+            + "community races and the occasional charity marathon. Clips and schedule on the channel page.";
+
+    private BenchmarkFixtures() {
+    }
+
+    static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("streamer_" + id);
+        user.setEmail("streamer_" + id + "@example.com");
+        user.setBio(BIO);
+        user.setAvatarUrl("https://cdn.example.com/avatars/" + id + ".png");
+        user.setChannelId("channel_" + id);
+        user.setCreatedAt(new Date(1_700_000_000_000L + id));
+        user.setUpdatedAt(new Date(1_710_000_000_000L + id));
+        user.setActive(true);
+        return user;
+    }
+
+    static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            users.add(user(i));
+        }
+        return users;
+    }
+
+    /**
+     * An outbox whose repository throws, for services whose measured paths write no events.
+     */
+    static UserOutbox outbox() {
+        return new UserOutbox(unsupported(OutboxEventRepository.class), new ObjectMapper());
+    }
+
+    /**
+     * A stand-in for a collaborator the measured paths never touch; any call
+     * throws UnsupportedOperationException naming the method, rather than the
+     * NullPointerException a null collaborator would give.
+     */
+    static <T> T unsupported(Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "toString" -> "Unsupported" + type.getSimpleName();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(
+                            type.getSimpleName() + "." + method.getName() + " is not available in benchmarks");
+                }));
+    }
+}
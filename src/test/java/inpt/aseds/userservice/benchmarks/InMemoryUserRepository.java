@@ -0,0 +1,105 @@
+package inpt.aseds.userservice.benchmarks;
+
+import inpt.aseds.userservice.domain.model.User;
+import inpt.aseds.userservice.domain.repository.UserRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * A UserRepository stand-in backed by a sorted map, so the service read paths can
+ * be measured without a database. Only the queries those paths issue are
+ * implemented; anything else throws.
+ */
+final class InMemoryUserRepository implements InvocationHandler {
+
+    private final NavigableMap<Long, User> usersById = new TreeMap<>();
+    private final NavigableMap<Long, User> activeUsersById = new TreeMap<>();
+
+    private InMemoryUserRepository(Collection<User> users) {
+        for (User user : users) {
+            usersById.put(user.getId(), user);
+            if (user.isActive()) {
+                activeUsersById.put(user.getId(), user);
+            }
+        }
+    }
+
+    static UserRepository of(Collection<User> users) {
+        return (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                new InMemoryUserRepository(users));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "findById", "loadById" -> Optional.ofNullable(usersById.get((Long) args[0]));
+            case "findUserByUsername", "loadByUsername" -> findByUsername((String) args[0]);
+            case "findByIdIn" -> findByIds((List<Long>) args[0]);
+            case "findAllActiveUsers" -> findActivePage((Pageable) args[0]);
+            case "findActiveUsersAfter" -> findActiveAfter((Long) args[0], (Limit) args[1]);
+            case "countActiveUsers" -> countActive();
+            case "toString" -> "InMemoryUserRepository[" + usersById.size() + " users]";
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            default -> throw new UnsupportedOperationException(method.getName());
+        };
+    }
+
+    private Optional<User> findByUsername(String username) {
+        for (User user : usersById.values()) {
+            if (user.getUsername().equals(username)) {
+                return Optional.of(user);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private List<User> findByIds(List<Long> ids) {
+        List<User> found = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            User user = usersById.get(id);
+            if (user != null) {
+                found.add(user);
+            }
+        }
+        return found;
+    }
+
+    private PageImpl<User> findActivePage(Pageable pageable) {
+        List<User> content = activeUsersById.values().stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .toList();
+        return new PageImpl<>(content, pageable, countActive());
+    }
+
+    private List<User> findActiveAfter(long afterId, Limit limit) {
+        // Iterated rather than streamed: a sub-map view counts its entries to size a spliterator
+        List<User> found = new ArrayList<>(limit.max());
+        for (User user : activeUsersById.tailMap(afterId, false).values()) {
+            if (found.size() == limit.max()) {
+                break;
+            }
+            found.add(user);
+        }
+        return found;
+    }
+
+    private long countActive() {
+        return activeUsersById.size();
+    }
+}
@@ -0,0 +1,160 @@
+package inpt.aseds.userservice.benchmarks;
+
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+import inpt.aseds.userservice.application.config.UserServiceProperties;
+import inpt.aseds.userservice.infrastructure.config.security.KeycloakAuthoritiesConverter;
+import inpt.aseds.userservice.infrastructure.config.security.SecurityConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.OAuth2ResourceServerProperties;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the authentication cost of one request carrying a Keycloak-style
+ * RS256 token, as the gRPC and HTTP security layers perform it. The JWKS is
+ * served by a local HTTP server standing in for Keycloak.
+ *
+ * uncached is the previous setup (Boot's default NimbusJwtDecoder and
+ * authorities built per request); cached is the SecurityConfig wiring.
+ * Run with: ./mvnw -Pbenchmark process-test-classes -Djmh.includes=JwtAuthenticationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    private static final String ISSUER = "http://keycloak.local/realms/master";
+
+    private HttpServer jwksServer;
+    private JWKSource<SecurityContext> jwkSource;
+    private JwtAuthenticationProvider uncached;
+    private JwtAuthenticationProvider cached;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        RSAKey key = new RSAKeyGenerator(2048).keyID("bench-key").generate();
+        byte[] jwks = new JWKSet(key.toPublicJWK()).toString().getBytes(StandardCharsets.UTF_8);
+        jwksServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        jwksServer.createContext("/certs", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, jwks.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(jwks);
+            }
+        });
+        jwksServer.start();
+        String jwkSetUri = "http://127.0.0.1:" + jwksServer.getAddress().getPort() + "/certs";
+
+        NimbusJwtDecoder defaultDecoder = NimbusJwtDecoder.withJwkSetUri(jwkSetUri).build();
+        defaultDecoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(ISSUER));
+        uncached = provider(defaultDecoder, new KeycloakAuthoritiesConverter(0, new SimpleMeterRegistry()));
+
+        OAuth2ResourceServerProperties resourceServer = new OAuth2ResourceServerProperties();
+        resourceServer.getJwt().setIssuerUri(ISSUER);
+        resourceServer.getJwt().setJwkSetUri(jwkSetUri);
+        UserServiceProperties properties = new UserServiceProperties();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SecurityConfig config = new SecurityConfig();
+        jwkSource = config.jwkSource(resourceServer, properties);
+        cached = new JwtAuthenticationProvider(config.jwtDecoder(jwkSource, resourceServer, properties, meterRegistry));
+        cached.setJwtAuthenticationConverter(config.jwtAuthenticationConverter(properties, meterRegistry));
+
+        token = token(key);
+        // Fetch the key set and fill the caches outside the measurement
+        uncached.authenticate(new BearerTokenAuthenticationToken(token));
+        cached.authenticate(new BearerTokenAuthenticationToken(token));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        ((Closeable) jwkSource).close();
+        jwksServer.stop(0);
+    }
+
+    @Benchmark
+    public Authentication uncached() {
+        return uncached.authenticate(new BearerTokenAuthenticationToken(token));
+    }
+
+    @Benchmark
+    public Authentication cached() {
+        return cached.authenticate(new BearerTokenAuthenticationToken(token));
+    }
+
+    private static JwtAuthenticationProvider provider(JwtDecoder decoder, KeycloakAuthoritiesConverter authorities) {
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(authorities);
+        JwtAuthenticationProvider provider = new JwtAuthenticationProvider(decoder);
+        provider.setJwtAuthenticationConverter(converter);
+        return provider;
+    }
+
+    private static String token(RSAKey key) throws Exception {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .subject("5f0c1a52-7d0e-4c43-9a4e-0c6b1f3f2a11")
+                .audience("account")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plusSeconds(3600)))
+                .claim("typ", "Bearer")
+                .claim("azp", "streaming-app")
+                .claim("preferred_username", "streamer_42")
+                .claim("email", "streamer_42@example.com")
+                .claim("scope", "openid profile email")
+                .claim("realm_access", Map.of("roles",
+                        List.of("USER", "offline_access", "uma_authorization", "default-roles-master")))
+                .claim("resource_access", Map.of(
+                        "streaming-app", Map.of("roles", List.of("viewer", "streamer")),
+                        "account", Map.of("roles", List.of("manage-account", "view-profile"))))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256)
+                .keyID(key.getKeyID())
+                .type(JOSEObjectType.JWT)
+                .build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+}
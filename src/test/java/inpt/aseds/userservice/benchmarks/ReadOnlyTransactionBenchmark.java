@@ -0,0 +1,126 @@
+package inpt.aseds.userservice.benchmarks;
+
+import inpt.aseds.userservice.UserServiceApplication;
+import inpt.aseds.userservice.application.services.UserImportService;
+import inpt.aseds.userservice.application.services.UserService;
+import inpt.aseds.userservice.domain.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading a page of 100 users in a read-write transaction, as every
+ * UserService query used to, with the read-only transaction it runs in now,
+ * where Hibernate keeps no dirty-checking snapshots and skips the flush.
+ * The outer transaction decides, as the service's methods join it.
+ *
+ * Runs the application context against a local PostgreSQL; users are imported
+ * into a separate schema (bench_reads) that is dropped afterwards. Add -prof gc
+ * to the JMH arguments for the allocation per page:
+ * BENCH_JDBC_URL=jdbc:postgresql://localhost:5432/mydatabase BENCH_JDBC_USER=myuser BENCH_JDBC_PASSWORD=mypassword \
+ *   ./mvnw -Pbenchmark process-test-classes -Djmh.includes=ReadOnlyTransactionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadOnlyTransactionBenchmark {
+
+    private static final String SCHEMA = "bench_reads";
+    private static final int USERS = 10_000;
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"false", "true"})
+    public boolean readOnly;
+
+    private String url;
+    private String username;
+    private String password;
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private TransactionTemplate transactions;
+    private int page;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        url = System.getenv().getOrDefault("BENCH_JDBC_URL", "jdbc:postgresql://localhost:5432/mydatabase");
+        username = System.getenv().getOrDefault("BENCH_JDBC_USER", "myuser");
+        password = System.getenv().getOrDefault("BENCH_JDBC_PASSWORD", "mypassword");
+        execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE", "CREATE SCHEMA " + SCHEMA);
+
+        // As arguments, since builder properties are overridden by application.yaml
+        context = new SpringApplicationBuilder(UserServiceApplication.class).run(
+                "--spring.datasource.url=" + url + (url.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA,
+                "--spring.datasource.username=" + username,
+                "--spring.datasource.password=" + password,
+                "--server.port=0",
+                "--spring.grpc.server.port=0",
+                "--app.user.outbox.relay-enabled=false",
+                "--logging.level.root=WARN");
+        userService = context.getBean(UserService.class);
+        transactions = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transactions.setReadOnly(readOnly);
+
+        UserImportService.UserImport userImport = context.getBean(UserImportService.class).startImport();
+        for (int i = 1; i <= USERS; i++) {
+            userImport.add(BenchmarkFixtures.user(i));
+        }
+        userImport.finish();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        context.close();
+        execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+
+    @Benchmark
+    public Page<User> listPage() {
+        PageRequest pageRequest = nextPage();
+        return transactions.execute(status -> userService.getAllUsers(pageRequest));
+    }
+
+    @Benchmark
+    public Page<User> searchPage() {
+        PageRequest pageRequest = nextPage();
+        return transactions.execute(status -> userService.searchUsers("streamer_1", pageRequest));
+    }
+
+    private PageRequest nextPage() {
+        page = (page + 1) % 10;
+        return PageRequest.of(page, PAGE_SIZE);
+    }
+
+    private void execute(String... statements) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, username, password);
+             Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
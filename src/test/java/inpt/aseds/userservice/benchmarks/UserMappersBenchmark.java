@@ -0,0 +1,97 @@
+package inpt.aseds.userservice.benchmarks;
+
+import inpt.aseds.userservice.application.dto.UserField;
+import inpt.aseds.userservice.application.dto.UserSlice;
+import inpt.aseds.userservice.application.mappers.UserMappers;
+import inpt.aseds.userservice.domain.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures entity to protobuf mapping and the serialization of list responses,
+ * which together make up most of the CPU spent answering ListUsers.
+ * Run with: ./mvnw -Pbenchmark process-test-classes -Djmh.includes=UserMappersBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMappersBenchmark {
+
+    private static final Set<UserField> SUMMARY_FIELDS = UserField.fromPaths(List.of("username", "avatar_url"));
+
+    private User entity;
+    private inpt.aseds.userservice.infrastructure.grpc.User message;
+
+    @Setup
+    public void setUp() {
+        entity = BenchmarkFixtures.user(42);
+        message = UserMappers.toGrpcUser(entity);
+    }
+
+    @State(Scope.Benchmark)
+    public static class ListPage {
+
+        @Param({"20", "100"})
+        public int pageSize;
+
+        List<User> users;
+        UserSlice slice;
+        inpt.aseds.userservice.infrastructure.grpc.ListUsersResponse response;
+
+        @Setup
+        public void setUp() {
+            users = BenchmarkFixtures.users(pageSize);
+            slice = new UserSlice(users, "", 50, 50L * pageSize);
+            response = UserMappers.toListUsersResponse(users, 50, 50L * pageSize);
+        }
+    }
+
+    @Benchmark
+    public inpt.aseds.userservice.infrastructure.grpc.User toGrpcUser() {
+        return UserMappers.toGrpcUser(entity);
+    }
+
+    @Benchmark
+    public User toDomainUser() {
+        return UserMappers.toDomainUser(message);
+    }
+
+    @Benchmark
+    public inpt.aseds.userservice.infrastructure.grpc.ListUsersResponse toListUsersResponse(ListPage page) {
+        return UserMappers.toListUsersResponse(page.users, 50, 50L * page.pageSize);
+    }
+
+    @Benchmark
+    public byte[] serializeListUsersResponse(ListPage page) {
+        return page.response.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializeListUsersResponse(ListPage page) {
+        return UserMappers.toListUsersResponse(page.users, 50, 50L * page.pageSize).toByteArray();
+    }
+
+    /**
+     * Same as mapAndSerializeListUsersResponse with a read mask of username and avatar_url.
+     */
+    @Benchmark
+    public byte[] mapAndSerializeMaskedListUsersResponse(ListPage page) {
+        return UserMappers.toListUsersResponse(page.slice, SUMMARY_FIELDS).toByteArray();
+    }
+}
@@ -0,0 +1,63 @@
+package inpt.aseds.userservice.benchmarks;
+
+import inpt.aseds.userservice.application.cache.UserResponseCache;
+import inpt.aseds.userservice.application.config.UserServiceProperties;
+import inpt.aseds.userservice.application.mappers.UserMappers;
+import inpt.aseds.userservice.domain.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares mapping the entity on every read with serving the cached gRPC message.
+ * The serialize variants include the work the gRPC marshaller does per response.
+ * Run with: ./mvnw -Pbenchmark process-test-classes -Djmh.includes=UserResponseCacheBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserResponseCacheBenchmark {
+
+    private User entity;
+    private UserResponseCache cache;
+
+    @Setup
+    public void setUp() {
+        entity = BenchmarkFixtures.user(42);
+        cache = new UserResponseCache(new UserServiceProperties(), new SimpleMeterRegistry());
+        cache.get(entity.getId(), id -> UserMappers.toGrpcUser(entity));
+    }
+
+    @Benchmark
+    public inpt.aseds.userservice.infrastructure.grpc.User mapOnEveryRead() {
+        return UserMappers.toGrpcUser(entity);
+    }
+
+    @Benchmark
+    public inpt.aseds.userservice.infrastructure.grpc.User cachedMessage() {
+        return cache.get(entity.getId(), id -> UserMappers.toGrpcUser(entity));
+    }
+
+    @Benchmark
+    public byte[] mapAndSerialize() {
+        return UserMappers.toGrpcUser(entity).toByteArray();
+    }
+
+    @Benchmark
+    public byte[] cachedAndSerialize() {
+        return cache.get(entity.getId(), id -> UserMappers.toGrpcUser(entity)).toByteArray();
+    }
+}
@@ -0,0 +1,108 @@
+package inpt.aseds.userservice.benchmarks;
+
+import inpt.aseds.userservice.application.cache.UserCache;
+import inpt.aseds.userservice.application.cache.UserExistenceFilter;
+import inpt.aseds.userservice.application.cache.UserResponseCache;
+import inpt.aseds.userservice.application.config.UserServiceProperties;
+import inpt.aseds.userservice.application.dto.PageToken;
+import inpt.aseds.userservice.application.dto.UserSlice;
+import inpt.aseds.userservice.application.services.UserService;
+import inpt.aseds.userservice.application.services.ValidationService;
+import inpt.aseds.userservice.domain.model.User;
+import inpt.aseds.userservice.domain.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Measures the UserService read paths over an in-memory repository, isolating the
+ * service, cache and validation overhead from the database.
+ * Run with: ./mvnw -Pbenchmark process-test-classes -Djmh.includes=UserServiceReadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserServiceReadBenchmark {
+
+    private static final int USERS = 10_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"true", "false"})
+    public boolean cacheEnabled;
+
+    private UserService userService;
+    private String username;
+    private String pageToken;
+    private List<Long> batchIds;
+
+    @Setup
+    public void setUp() {
+        UserServiceProperties properties = new UserServiceProperties();
+        properties.getCache().setEnabled(cacheEnabled);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UserRepository repository = InMemoryUserRepository.of(BenchmarkFixtures.users(USERS));
+
+        // The read paths touch neither the entity manager, the outbox nor the existence
+        // filter's transactions; a benchmark that strays onto a write path fails loudly
+        UserExistenceFilter existenceFilter = new UserExistenceFilter(repository,
+                BenchmarkFixtures.unsupported(PlatformTransactionManager.class), properties, meterRegistry);
+        userService = new UserService(repository, new ValidationService(properties), properties,
+                new UserCache(properties, meterRegistry), new UserResponseCache(properties, meterRegistry),
+                BenchmarkFixtures.unsupported(EntityManager.class), BenchmarkFixtures.outbox(), existenceFilter,
+                meterRegistry);
+
+        username = BenchmarkFixtures.user(42).getUsername();
+        pageToken = PageToken.afterId(USERS / 2).encode();
+        batchIds = LongStream.rangeClosed(1, 100).boxed().toList();
+    }
+
+    @Benchmark
+    public User getUserById() {
+        return userService.getUserById(42L);
+    }
+
+    @Benchmark
+    public User getUserByUsername() {
+        return userService.getUserByUsername(username);
+    }
+
+    @Benchmark
+    public inpt.aseds.userservice.infrastructure.grpc.User getUserMessageById() {
+        return userService.getUserMessageById(42L);
+    }
+
+    @Benchmark
+    public Map<Long, User> getUsersByIds() {
+        return userService.getUsersByIds(batchIds);
+    }
+
+    @Benchmark
+    public UserSlice listFirstPage() {
+        return userService.listActiveUsers(0, PAGE_SIZE, null, false);
+    }
+
+    @Benchmark
+    public UserSlice listAfterToken() {
+        return userService.listActiveUsers(0, PAGE_SIZE, pageToken, false);
+    }
+}
@@ -0,0 +1,134 @@
+package inpt.aseds.userservice.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former unranked {@code LIKE %query%} search with the ranked,
+ * trigram-indexed search used by UserRepository.searchActiveUsersByUsername.
+ * Both variants fetch a page of 20 and run their count query, as SearchUsers does;
+ * the former search runs against an unindexed copy of the table, as it did before
+ * db/user-search.sql.
+ *
+ * Needs a local PostgreSQL with pg_trgm available; the data is generated into a
+ * separate schema (bench_search) that is dropped afterwards:
+ * BENCH_JDBC_URL=jdbc:postgresql://localhost:5432/mydatabase BENCH_JDBC_USER=myuser BENCH_JDBC_PASSWORD=mypassword \
+ *   ./mvnw -Pbenchmark process-test-classes -Djmh.includes=UsernameSearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UsernameSearchBenchmark {
+
+    private static final String LEGACY_SEARCH = "SELECT * FROM bench_search.user_table_unindexed "
+            + "WHERE username LIKE ? AND is_active = true OFFSET 0 LIMIT 20";
+    private static final String LEGACY_COUNT = "SELECT count(*) FROM bench_search.user_table_unindexed "
+            + "WHERE username LIKE ? AND is_active = true";
+    private static final String RANKED_SEARCH = "SELECT u.* FROM bench_search.user_table u "
+            + "WHERE u.is_active = true AND u.username LIKE ? "
+            + "ORDER BY CASE WHEN u.username = ? THEN 0 WHEN u.username LIKE ? THEN 1 ELSE 2 END, "
+            + "length(u.username), u.id OFFSET 0 LIMIT 20";
+    private static final String RANKED_COUNT = "SELECT count(*) FROM bench_search.user_table u "
+            + "WHERE u.is_active = true AND u.username LIKE ?";
+
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    @Param({"streamer_4242", "ninja", "xq7"})
+    public String query;
+
+    private Connection connection;
+    private PreparedStatement legacySearch;
+    private PreparedStatement legacyCount;
+    private PreparedStatement rankedSearch;
+    private PreparedStatement rankedCount;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getenv().getOrDefault("BENCH_JDBC_URL", "jdbc:postgresql://localhost:5432/mydatabase"),
+                System.getenv().getOrDefault("BENCH_JDBC_USER", "myuser"),
+                System.getenv().getOrDefault("BENCH_JDBC_PASSWORD", "mypassword"));
+
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            ddl.execute("DROP SCHEMA IF EXISTS bench_search CASCADE");
+            ddl.execute("CREATE SCHEMA bench_search");
+            ddl.execute("CREATE TABLE bench_search.user_table (id bigint PRIMARY KEY, "
+                    + "username varchar(100) NOT NULL, email varchar(100) NOT NULL, bio varchar(500), "
+                    + "is_active boolean NOT NULL)");
+            ddl.execute("INSERT INTO bench_search.user_table "
+                    + "SELECT i, CASE i % 7 WHEN 0 THEN 'ninja_' || i WHEN 1 THEN 'streamer_' || i "
+                    + "ELSE substr(md5(i::text), 1, 12) END, "
+                    + "'user' || i || '@example.com', 'bio', i % 10 <> 0 "
+                    + "FROM generate_series(1, " + rows + ") AS i");
+            ddl.execute("CREATE TABLE bench_search.user_table_unindexed AS TABLE bench_search.user_table");
+            ddl.execute("CREATE INDEX ON bench_search.user_table USING gin (username gin_trgm_ops) "
+                    + "WHERE is_active = true");
+            ddl.execute("ANALYZE bench_search.user_table");
+            ddl.execute("ANALYZE bench_search.user_table_unindexed");
+        }
+
+        legacySearch = connection.prepareStatement(LEGACY_SEARCH);
+        legacyCount = connection.prepareStatement(LEGACY_COUNT);
+        rankedSearch = connection.prepareStatement(RANKED_SEARCH);
+        rankedCount = connection.prepareStatement(RANKED_COUNT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP SCHEMA IF EXISTS bench_search CASCADE");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void legacyLike(Blackhole blackhole) throws SQLException {
+        legacySearch.setString(1, "%" + query + "%");
+        consume(legacySearch, blackhole);
+        legacyCount.setString(1, "%" + query + "%");
+        consume(legacyCount, blackhole);
+    }
+
+    @Benchmark
+    public void rankedTrigram(Blackhole blackhole) throws SQLException {
+        rankedSearch.setString(1, "%" + query + "%");
+        rankedSearch.setString(2, query);
+        rankedSearch.setString(3, query + "%");
+        consume(rankedSearch, blackhole);
+        rankedCount.setString(1, "%" + query + "%");
+        consume(rankedCount, blackhole);
+    }
+
+    private static void consume(PreparedStatement statement, Blackhole blackhole) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                blackhole.consume(resultSet.getObject(1));
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package inpt.aseds.userservice.benchmarks;
+
+import inpt.aseds.userservice.application.config.UserServiceProperties;
+import inpt.aseds.userservice.application.services.ValidationService;
+import inpt.aseds.userservice.domain.exceptions.UserValidationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Compares ValidationService with the regex-based validators it replaced, on
+ * accepted input and on the common rejections, and measures its other checks.
+ * Run with: ./mvnw -Pbenchmark process-test-classes -Djmh.includes=ValidationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private final String username = "  streamer_4242 ";
+    private final String invalidUsername = "streamer-4242";
+    private final String email = "streamer_4242@mail.example.com";
+    private final String invalidEmail = "streamer_4242@example";
+
+    private final List<Long> batchIds = LongStream.rangeClosed(1, 100).boxed().toList();
+
+    private ValidationService current;
+    private LegacyValidationService legacy;
+
+    @Setup
+    public void setUp() {
+        UserServiceProperties properties = new UserServiceProperties();
+        current = new ValidationService(properties);
+        legacy = new LegacyValidationService(properties);
+    }
+
+    @Benchmark
+    public void currentValidUsername() {
+        current.validateUsername(username);
+    }
+
+    @Benchmark
+    public void legacyValidUsername() {
+        legacy.validateUsername(username);
+    }
+
+    @Benchmark
+    public void currentValidEmail() {
+        current.validateEmail(email);
+    }
+
+    @Benchmark
+    public void legacyValidEmail() {
+        legacy.validateEmail(email);
+    }
+
+    @Benchmark
+    public UserValidationException currentInvalidUsername() {
+        try {
+            current.validateUsername(invalidUsername);
+            return null;
+        } catch (UserValidationException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public UserValidationException legacyInvalidUsername() {
+        try {
+            legacy.validateUsername(invalidUsername);
+            return null;
+        } catch (UserValidationException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public UserValidationException currentInvalidEmail() {
+        try {
+            current.validateEmail(invalidEmail);
+            return null;
+        } catch (UserValidationException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public UserValidationException legacyInvalidEmail() {
+        try {
+            legacy.validateEmail(invalidEmail);
+            return null;
+        } catch (UserValidationException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public void currentUserId() {
+        current.validateUserId(42L);
+    }
+
+    @Benchmark
+    public void currentPagination() {
+        current.validatePagination(3, 20);
+    }
+
+    @Benchmark
+    public void currentSearchQuery() {
+        current.validateSearchQuery(" stream ");
+    }
+
+    @Benchmark
+    public void currentBatchIds() {
+        current.validateBatchIds(batchIds);
+    }
+
+    /**
+     * The username and email validators as they were before the rewrite.
+     */
+    static final class LegacyValidationService {
+
+        private final UserServiceProperties properties;
+
+        LegacyValidationService(UserServiceProperties properties) {
+            this.properties = properties;
+        }
+
+        void validateUsername(String username) {
+            if (!StringUtils.hasText(username)) {
+                throw new UserValidationException("username", "Username cannot be empty");
+            }
+
+            String trimmedUsername = username.trim();
+            if (trimmedUsername.length() < properties.getValidation().getUsername().getMinLength()) {
+                throw new UserValidationException("username",
+                    "Username must be at least " + properties.getValidation().getUsername().getMinLength() + " characters");
+            }
+            if (trimmedUsername.length() > properties.getValidation().getUsername().getMaxLength()) {
+                throw new UserValidationException("username",
+                    "Username cannot exceed " + properties.getValidation().getUsername().getMaxLength() + " characters");
+            }
+
+            if (!trimmedUsername.matches("^[a-zA-Z0-9_]+$")) {
+                throw new UserValidationException("username",
+                    "Username can only contain letters, numbers, and underscores");
+            }
+        }
+
+        void validateEmail(String email) {
+            if (StringUtils.hasText(email)) {
+                if (email.length() > properties.getValidation().getEmail().getMaxLength()) {
+                    throw new UserValidationException("email",
+                        "Email cannot exceed " + properties.getValidation().getEmail().getMaxLength() + " characters");
+                }
+
+                String emailRegex = "^[A-Za-z0-9+_.-]+@([A-Za-z0-9.-]+\\.[A-Za-z]{2,})$";
+                if (!email.matches(emailRegex)) {
+                    throw new UserValidationException("email", "Invalid email format");
+                }
+            }
+        }
+    }
+}
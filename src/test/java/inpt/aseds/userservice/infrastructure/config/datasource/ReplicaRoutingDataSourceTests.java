@@ -0,0 +1,225 @@
+package inpt.aseds.userservice.infrastructure.config.datasource;
+
+import inpt.aseds.userservice.infrastructure.config.grpc.CallerKeyInterceptor;
+import inpt.aseds.userservice.infrastructure.config.grpc.TestServerCall;
+import inpt.aseds.userservice.infrastructure.grpc.UserServiceGrpc;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Connection primaryConnection = mock(Connection.class);
+    private final DataSource primary = dataSource(primaryConnection);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void usesThePrimaryUntilReplicasHaveBeenChecked() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(Map.of("replica-0", replica(0)));
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        assertThat(meterRegistry.get("db.reads").tag("route", "no-healthy-replica").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void spreadsReadsOverHealthyReplicas() throws SQLException {
+        Connection first = mock(Connection.class);
+        Connection second = mock(Connection.class);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", replica(first, 0));
+        replicas.put("replica-1", replica(second, 0));
+        ReplicaRoutingDataSource routing = routing(replicas);
+
+        routing.checkHealth();
+
+        assertThat(routing.getConnection()).isSameAs(first);
+        assertThat(routing.getConnection()).isSameAs(second);
+        assertThat(routing.getConnection()).isSameAs(first);
+        assertThat(meterRegistry.get("db.replicas.healthy").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void skipsReplicasThatAreDownOrLagging() throws SQLException {
+        DataSource down = mock(DataSource.class);
+        when(down.getConnection()).thenThrow(new SQLException("Connection refused"));
+        Connection healthy = mock(Connection.class);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", down);
+        replicas.put("replica-1", replica(30));
+        replicas.put("replica-2", replica(healthy, 2));
+        ReplicaRoutingDataSource routing = routing(replicas);
+
+        routing.checkHealth();
+
+        assertThat(routing.getConnection()).isSameAs(healthy);
+        assertThat(routing.getConnection()).isSameAs(healthy);
+        assertThat(meterRegistry.get("db.replicas.healthy").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void skipsReplicasWhoseWalStreamHasStopped() throws SQLException {
+        Connection stalled = mock(Connection.class);
+        Connection streaming = mock(Connection.class);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", replica(stalled, 0));
+        replicas.put("replica-1", replica(streaming, 0));
+        ReplicaRoutingDataSource routing = routing(replicas);
+        // A standby without a streaming WAL receiver reports its lag as NULL
+        ResultSet lag = stalled.createStatement().executeQuery("lag");
+        when(lag.wasNull()).thenReturn(true);
+
+        routing.checkHealth();
+
+        assertThat(routing.getConnection()).isSameAs(streaming);
+        assertThat(routing.getConnection()).isSameAs(streaming);
+        assertThat(meterRegistry.get("db.replicas.healthy").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void servesRecentWritersFromThePrimary() throws SQLException {
+        Connection replicaConnection = mock(Connection.class);
+        ReplicaRoutingDataSource routing = routing(Map.of("replica-0", replica(replicaConnection, 0)));
+        routing.checkHealth();
+
+        authenticate("alice");
+        TransactionSynchronizationManager.initSynchronization();
+        routing.primary().getConnection();
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        authenticate("bob");
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+        assertThat(meterRegistry.get("db.reads").tag("route", "read-your-writes").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void servesRecentWritersFromThePrimaryPerForwardedUser() throws SQLException {
+        Connection replicaConnection = mock(Connection.class);
+        ReplicaRoutingDataSource routing = routing(Map.of("replica-0", replica(replicaConnection, 0)));
+        routing.checkHealth();
+        CallerKeyInterceptor callerKey = new CallerKeyInterceptor("x-forwarded-user", Set.of("gateway"));
+
+        authenticate("gateway");
+        forwardedCall(callerKey, "alice", () -> {
+            TransactionSynchronizationManager.initSynchronization();
+            routing.primary().getConnection();
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+            TransactionSynchronizationManager.clearSynchronization();
+        });
+
+        // Both users share the gateway's token; only the one who wrote reads from the primary
+        forwardedCall(callerKey, "alice", () -> assertThat(routing.getConnection()).isSameAs(primaryConnection));
+        forwardedCall(callerKey, "bob", () -> assertThat(routing.getConnection()).isSameAs(replicaConnection));
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+        assertThat(meterRegistry.get("db.reads").tag("route", "read-your-writes").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void ignoresWritesThatRollBack() throws SQLException {
+        Connection replicaConnection = mock(Connection.class);
+        ReplicaRoutingDataSource routing = routing(Map.of("replica-0", replica(replicaConnection, 0)));
+        routing.checkHealth();
+
+        authenticate("alice");
+        TransactionSynchronizationManager.initSynchronization();
+        routing.primary().getConnection();
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+    }
+
+    private ReplicaRoutingDataSource routing(Map<String, DataSource> replicas) {
+        return new ReplicaRoutingDataSource(primary, replicas, Duration.ofSeconds(10), Duration.ofSeconds(5),
+                meterRegistry);
+    }
+
+    /**
+     * Runs the body as the handler of a call forwarded for the given end user.
+     */
+    private static void forwardedCall(CallerKeyInterceptor callerKey, String endUser, SqlBody body) {
+        Metadata headers = new Metadata();
+        headers.put(Metadata.Key.of("x-forwarded-user", Metadata.ASCII_STRING_MARSHALLER), endUser);
+        callerKey.interceptCall(new TestServerCall<>(UserServiceGrpc.getGetUserMethod()), headers,
+                (call, callHeaders) -> {
+                    try {
+                        body.run();
+                    } catch (SQLException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return new ServerCall.Listener<>() {
+                    };
+                });
+    }
+
+    private interface SqlBody {
+        void run() throws SQLException;
+    }
+
+    private static void authenticate(String name) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(name, null));
+    }
+
+    private static DataSource replica(double lagSeconds) throws SQLException {
+        return replica(mock(Connection.class), lagSeconds);
+    }
+
+    /**
+     * A replica whose connections report the given replication lag.
+     */
+    private static DataSource replica(Connection connection, double lagSeconds) throws SQLException {
+        Statement statement = mock(Statement.class);
+        ResultSet lag = mock(ResultSet.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(lag);
+        when(lag.next()).thenReturn(true);
+        when(lag.getDouble(1)).thenReturn(lagSeconds);
+        return dataSource(connection);
+    }
+
+    private static DataSource dataSource(Connection connection) {
+        DataSource dataSource = mock(DataSource.class);
+        try {
+            when(dataSource.getConnection()).thenReturn(connection);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        return dataSource;
+    }
+}
@@ -0,0 +1,183 @@
+package inpt.aseds.userservice.infrastructure.config.grpc;
+
+import inpt.aseds.userservice.infrastructure.grpc.ExportUsersRequest;
+import inpt.aseds.userservice.infrastructure.grpc.GetUserRequest;
+import inpt.aseds.userservice.infrastructure.grpc.User;
+import inpt.aseds.userservice.infrastructure.grpc.UserServiceGrpc;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitInterceptorTests {
+
+    private static final Duration LATENCY_THRESHOLD = Duration.ofMillis(100);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void doesNotGrowWhileLessThanHalfUsed() {
+        AdaptiveConcurrencyLimitInterceptor interceptor = interceptor(4);
+
+        for (int i = 0; i < 20; i++) {
+            finish(start(interceptor), Status.OK);
+        }
+
+        assertThat(interceptor.limit()).isEqualTo(4);
+    }
+
+    @Test
+    void growsByAboutOnePerLimitCallsWhileAtLeastHalfUsed() {
+        AdaptiveConcurrencyLimitInterceptor interceptor = interceptor(2);
+
+        // 2 -> 2.5 -> 2.9 -> 3.24
+        finish(start(interceptor), Status.OK);
+        finish(start(interceptor), Status.OK);
+        assertThat(interceptor.limit()).isEqualTo(2);
+        finish(start(interceptor), Status.OK);
+        assertThat(interceptor.limit()).isEqualTo(3);
+    }
+
+    @Test
+    void stopsGrowingAtTheMaximum() {
+        AdaptiveConcurrencyLimitInterceptor interceptor = interceptor(2);
+
+        for (int i = 0; i < 100; i++) {
+            List<ServerCall<GetUserRequest, User>> calls = new ArrayList<>();
+            for (int j = interceptor.limit(); j > 0; j--) {
+                calls.add(start(interceptor));
+            }
+            calls.forEach(call -> finish(call, Status.OK));
+        }
+
+        assertThat(interceptor.limit()).isEqualTo(20);
+    }
+
+    @Test
+    void backsOffOnASlowCall() {
+        AdaptiveConcurrencyLimitInterceptor interceptor = interceptor(10);
+        advance(Duration.ofMillis(1));
+
+        ServerCall<GetUserRequest, User> call = start(interceptor);
+        advance(LATENCY_THRESHOLD.plusMillis(1));
+        finish(call, Status.OK);
+
+        assertThat(interceptor.limit()).isEqualTo(5);
+    }
+
+    @Test
+    void backsOffOnDeadlineExceededAndResourceExhausted() {
+        AdaptiveConcurrencyLimitInterceptor interceptor = interceptor(16);
+
+        advance(Duration.ofMillis(1));
+        finish(start(interceptor), Status.DEADLINE_EXCEEDED);
+        assertThat(interceptor.limit()).isEqualTo(8);
+
+        advance(Duration.ofMillis(1));
+        finish(start(interceptor), Status.RESOURCE_EXHAUSTED);
+        assertThat(interceptor.limit()).isEqualTo(4);
+    }
+
+    @Test
+    void backsOffOnceForSlowCallsStartedBeforeTheLastDecrease() {
+        AdaptiveConcurrencyLimitInterceptor interceptor = interceptor(16);
+        advance(Duration.ofMillis(1));
+
+        List<ServerCall<GetUserRequest, User>> burst = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            burst.add(start(interceptor));
+        }
+        advance(LATENCY_THRESHOLD.multipliedBy(2));
+        burst.forEach(call -> finish(call, Status.OK));
+        assertThat(interceptor.limit()).isEqualTo(8);
+
+        // A slow call started after the decrease backs off again
+        advance(Duration.ofMillis(1));
+        ServerCall<GetUserRequest, User> call = start(interceptor);
+        advance(LATENCY_THRESHOLD.multipliedBy(2));
+        finish(call, Status.OK);
+        assertThat(interceptor.limit()).isEqualTo(4);
+    }
+
+    @Test
+    void neverBacksOffBelowTheMinimum() {
+        AdaptiveConcurrencyLimitInterceptor interceptor = interceptor(4);
+
+        for (int i = 0; i < 5; i++) {
+            advance(Duration.ofMillis(1));
+            finish(start(interceptor), Status.DEADLINE_EXCEEDED);
+        }
+
+        assertThat(interceptor.limit()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsCallsOnceTheLimitIsInFlight() {
+        AdaptiveConcurrencyLimitInterceptor interceptor = interceptor(2);
+
+        ServerCall<GetUserRequest, User> first = start(interceptor);
+        ServerCall<GetUserRequest, User> second = start(interceptor);
+        assertThat(first).isNotNull();
+        assertThat(second).isNotNull();
+        assertThat(start(interceptor)).isNull();
+
+        finish(first, Status.OK);
+        assertThat(start(interceptor)).isNotNull();
+        assertThat(meterRegistry.get("grpc.server.calls.rejected").tag("reason", "adaptive-limit")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void neitherCountsNorLimitsStreamingCalls() {
+        AdaptiveConcurrencyLimitInterceptor interceptor = interceptor(2);
+
+        for (int i = 0; i < 10; i++) {
+            TestServerCall<ExportUsersRequest, User> export = new TestServerCall<>(UserServiceGrpc.getExportUsersMethod());
+            interceptor.interceptCall(export, new Metadata(), (call, headers) -> new ServerCall.Listener<>() {
+            });
+            assertThat(export.status()).isNull();
+        }
+        assertThat(start(interceptor)).isNotNull();
+    }
+
+    private AdaptiveConcurrencyLimitInterceptor interceptor(int initialLimit) {
+        return new AdaptiveConcurrencyLimitInterceptor(initialLimit, 2, 20, LATENCY_THRESHOLD, 0.5,
+                clock::get, meterRegistry);
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+
+    /**
+     * Starts a GetUser call, returning the call the handler got, or null if it
+     * was rejected.
+     */
+    private static ServerCall<GetUserRequest, User> start(AdaptiveConcurrencyLimitInterceptor interceptor) {
+        TestServerCall<GetUserRequest, User> call = new TestServerCall<>(UserServiceGrpc.getGetUserMethod());
+        AtomicReference<ServerCall<GetUserRequest, User>> handled = new AtomicReference<>();
+        interceptor.interceptCall(call, new Metadata(), (started, headers) -> {
+            handled.set(started);
+            return new ServerCall.Listener<>() {
+            };
+        });
+        if (handled.get() == null) {
+            assertThat(call.status().getCode()).isEqualTo(Status.Code.RESOURCE_EXHAUSTED);
+        }
+        return handled.get();
+    }
+
+    private static void finish(ServerCall<GetUserRequest, User> call, Status status) {
+        call.close(status, new Metadata());
+    }
+}
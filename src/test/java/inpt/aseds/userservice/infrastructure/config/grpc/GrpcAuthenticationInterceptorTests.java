@@ -0,0 +1,302 @@
+package inpt.aseds.userservice.infrastructure.config.grpc;
+
+import com.google.protobuf.Empty;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import inpt.aseds.userservice.application.config.UserServiceProperties;
+import inpt.aseds.userservice.infrastructure.config.security.SecurityConfig;
+import inpt.aseds.userservice.infrastructure.grpc.DeleteUserRequest;
+import inpt.aseds.userservice.infrastructure.grpc.ExportUsersRequest;
+import inpt.aseds.userservice.infrastructure.grpc.GetUserRequest;
+import inpt.aseds.userservice.infrastructure.grpc.ImportUserRecord;
+import inpt.aseds.userservice.infrastructure.grpc.ImportUsersResponse;
+import inpt.aseds.userservice.infrastructure.grpc.User;
+import inpt.aseds.userservice.infrastructure.grpc.UserServiceGrpc;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.NettyServerBuilder;
+import io.grpc.stub.MetadataUtils;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the interceptor as configured by GrpcSecurityConfig in front of a stub
+ * UserService on a local server, with tokens signed by a test key.
+ */
+class GrpcAuthenticationInterceptorTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // Handlers run on one thread, so the context it is left with after a call can be inspected
+    private final ExecutorService handlerThread = Executors.newSingleThreadExecutor();
+    private final List<String> callers = new CopyOnWriteArrayList<>();
+    private final AtomicInteger handled = new AtomicInteger();
+
+    private RSAKey key;
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        key = new RSAKeyGenerator(2048).keyID("test-key").generate();
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withPublicKey(key.toRSAPublicKey()).build();
+        decoder.setJwtValidator(new JwtTimestampValidator(Duration.ZERO));
+
+        UserServiceProperties properties = new UserServiceProperties();
+        GrpcAuthenticationInterceptor interceptor = new GrpcSecurityConfig().grpcAuthenticationInterceptor(decoder,
+                new SecurityConfig().jwtAuthenticationConverter(properties, meterRegistry), properties, meterRegistry);
+
+        server = NettyServerBuilder.forPort(0)
+                .executor(handlerThread)
+                .addTransportFilter(interceptor.transportFilter())
+                .addService(ServerInterceptors.intercept(new RecordingUserService(), interceptor))
+                .build()
+                .start();
+        channel = NettyChannelBuilder.forAddress("localhost", server.getPort()).usePlaintext().build();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        channel.shutdownNow();
+        server.shutdownNow().awaitTermination(10, TimeUnit.SECONDS);
+        handlerThread.shutdownNow();
+    }
+
+    @Test
+    void rejectsCallsWithoutAToken() {
+        assertRejected(UserServiceGrpc.newBlockingStub(channel), Status.Code.UNAUTHENTICATED);
+        assertRejected(stub("Basic dXNlcjpwYXNz"), Status.Code.UNAUTHENTICATED);
+        assertRejected(stub("Bearer "), Status.Code.UNAUTHENTICATED);
+
+        assertThat(handled).hasValue(0);
+        assertThat(rejections("unauthenticated")).isEqualTo(3);
+    }
+
+    @Test
+    void rejectsMalformedAndForgedTokens() throws Exception {
+        RSAKey otherKey = new RSAKeyGenerator(2048).keyID("test-key").generate();
+
+        assertRejected(stub("Bearer not-a-jwt"), Status.Code.UNAUTHENTICATED);
+        assertRejected(stub("Bearer " + token(otherKey, "mallory", List.of("ADMIN"), Instant.now().plusSeconds(60))),
+                Status.Code.UNAUTHENTICATED);
+        assertRejected(stub("Bearer " + token("alice", List.of("USER"), Instant.now().minusSeconds(1))),
+                Status.Code.UNAUTHENTICATED);
+
+        assertThat(handled).hasValue(0);
+        assertThat(rejections("unauthenticated")).isEqualTo(3);
+    }
+
+    @Test
+    void bindsTheCallerForTheHandlerAndClearsItAfterwards() throws Exception {
+        stub(bearer("alice", "USER")).getUser(GetUserRequest.newBuilder().setId(1).build());
+
+        assertThat(callers).containsExactly("alice");
+        Authentication left = handlerThread.submit(() -> SecurityContextHolder.getContext().getAuthentication())
+                .get(5, TimeUnit.SECONDS);
+        assertThat(left).isNull();
+    }
+
+    @Test
+    void authenticatesEachTokenSentOnAConnection() throws Exception {
+        stub(bearer("alice", "USER")).getUser(GetUserRequest.newBuilder().setId(1).build());
+        stub(bearer("bob", "USER")).getUser(GetUserRequest.newBuilder().setId(1).build());
+        stub(bearer("alice", "USER")).getUser(GetUserRequest.newBuilder().setId(1).build());
+        assertRejected(stub("Bearer " + token(new RSAKeyGenerator(2048).keyID("test-key").generate(), "bob",
+                List.of("ADMIN"), Instant.now().plusSeconds(60))), Status.Code.UNAUTHENTICATED);
+
+        assertThat(callers).containsExactly("alice", "bob", "alice");
+    }
+
+    @Test
+    void stopsReusingAConnectionsPrincipalOnceItsTokenExpires() throws Exception {
+        // exp has second precision; expire at the start of the second after next
+        Instant expiresAt = Instant.ofEpochSecond(Instant.now().getEpochSecond() + 2);
+        UserServiceGrpc.UserServiceBlockingStub stub = stub("Bearer " + token("alice", List.of("USER"), expiresAt));
+
+        stub.getUser(GetUserRequest.newBuilder().setId(1).build());
+        Thread.sleep(Duration.between(Instant.now(), expiresAt).toMillis() + 200);
+
+        assertRejected(stub, Status.Code.UNAUTHENTICATED);
+        assertThat(callers).containsExactly("alice");
+    }
+
+    @Test
+    void requiresTheAdminRoleForDeleteImportAndExport() throws Exception {
+        UserServiceGrpc.UserServiceBlockingStub user = stub(bearer("alice", "USER"));
+        UserServiceGrpc.UserServiceStub asyncUser = UserServiceGrpc.newStub(channel)
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(authorization(bearer("alice", "USER"))));
+
+        assertThatThrownBy(() -> user.deleteUser(DeleteUserRequest.newBuilder().setId(1).build()))
+                .isInstanceOfSatisfying(StatusRuntimeException.class,
+                        e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.PERMISSION_DENIED));
+        assertThatThrownBy(() -> user.exportUsers(ExportUsersRequest.getDefaultInstance()).hasNext())
+                .isInstanceOfSatisfying(StatusRuntimeException.class,
+                        e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.PERMISSION_DENIED));
+        ResponseRecorder<ImportUsersResponse> imported = new ResponseRecorder<>();
+        StreamObserver<ImportUserRecord> records = asyncUser.importUsers(imported);
+        records.onNext(ImportUserRecord.getDefaultInstance());
+        records.onCompleted();
+        assertThat(imported.await().getCode()).isEqualTo(Status.Code.PERMISSION_DENIED);
+
+        assertThat(handled).hasValue(0);
+        assertThat(rejections("permission-denied")).isEqualTo(3);
+
+        stub(bearer("root", "ADMIN")).deleteUser(DeleteUserRequest.newBuilder().setId(1).build());
+        assertThat(callers).containsExactly("root");
+    }
+
+    private UserServiceGrpc.UserServiceBlockingStub stub(String authorization) {
+        return UserServiceGrpc.newBlockingStub(channel)
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(authorization(authorization)));
+    }
+
+    private static Metadata authorization(String value) {
+        Metadata headers = new Metadata();
+        headers.put(Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER), value);
+        return headers;
+    }
+
+    private static void assertRejected(UserServiceGrpc.UserServiceBlockingStub stub, Status.Code code) {
+        assertThatThrownBy(() -> stub.getUser(GetUserRequest.newBuilder().setId(1).build()))
+                .isInstanceOfSatisfying(StatusRuntimeException.class,
+                        e -> assertThat(e.getStatus().getCode()).isEqualTo(code));
+    }
+
+    private double rejections(String reason) {
+        return meterRegistry.get("grpc.server.calls.rejected").tag("reason", reason).counter().count();
+    }
+
+    private String bearer(String subject, String role) throws Exception {
+        return "Bearer " + token(subject, List.of(role), Instant.now().plusSeconds(300));
+    }
+
+    private String token(String subject, List<String> realmRoles, Instant expiresAt) throws Exception {
+        return token(key, subject, realmRoles, expiresAt);
+    }
+
+    private static String token(RSAKey signingKey, String subject, List<String> realmRoles, Instant expiresAt)
+            throws Exception {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject(subject)
+                .issueTime(new Date())
+                .expirationTime(Date.from(expiresAt))
+                .claim("realm_access", Map.of("roles", realmRoles))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256)
+                .keyID(signingKey.getKeyID())
+                .type(JOSEObjectType.JWT)
+                .build(), claims);
+        jwt.sign(new RSASSASigner(signingKey));
+        return jwt.serialize();
+    }
+
+    /**
+     * Answers every call, recording who the security context says made it.
+     */
+    private final class RecordingUserService extends UserServiceGrpc.UserServiceImplBase {
+
+        @Override
+        public void getUser(GetUserRequest request, StreamObserver<User> responseObserver) {
+            record();
+            responseObserver.onNext(User.newBuilder().setId(request.getId()).build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void deleteUser(DeleteUserRequest request, StreamObserver<Empty> responseObserver) {
+            record();
+            responseObserver.onNext(Empty.getDefaultInstance());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void exportUsers(ExportUsersRequest request, StreamObserver<User> responseObserver) {
+            record();
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public StreamObserver<ImportUserRecord> importUsers(StreamObserver<ImportUsersResponse> responseObserver) {
+            record();
+            return new StreamObserver<>() {
+                @Override
+                public void onNext(ImportUserRecord value) {
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                }
+
+                @Override
+                public void onCompleted() {
+                    responseObserver.onNext(ImportUsersResponse.getDefaultInstance());
+                    responseObserver.onCompleted();
+                }
+            };
+        }
+
+        private void record() {
+            handled.incrementAndGet();
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            callers.add(authentication != null ? authentication.getName() : null);
+        }
+    }
+
+    /**
+     * Waits for the status a client-streaming call ends with.
+     */
+    private static final class ResponseRecorder<T> implements StreamObserver<T> {
+
+        private final CompletableFuture<Status> status = new CompletableFuture<>();
+
+        @Override
+        public void onNext(T value) {
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            status.complete(Status.fromThrowable(t));
+        }
+
+        @Override
+        public void onCompleted() {
+            status.complete(Status.OK);
+        }
+
+        Status await() throws Exception {
+            return status.get(10, TimeUnit.SECONDS);
+        }
+    }
+}
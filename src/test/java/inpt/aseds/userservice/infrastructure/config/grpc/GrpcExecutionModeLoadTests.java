@@ -0,0 +1,214 @@
+package inpt.aseds.userservice.infrastructure.config.grpc;
+
+import inpt.aseds.userservice.application.cache.UserCache;
+import inpt.aseds.userservice.application.config.UserServiceProperties;
+import inpt.aseds.userservice.infrastructure.grpc.GetUserRequest;
+import inpt.aseds.userservice.infrastructure.grpc.User;
+import inpt.aseds.userservice.infrastructure.grpc.UserServiceGrpc;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.NettyServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bursts GetUser calls at a server whose handler holds one of 20 "connections"
+ * for 10 ms, like a JDBC query on the Hikari pool, and compares p99 latency,
+ * peak handlers in flight and peak platform threads between the default
+ * executor and virtual threads with the concurrency limit. A second test
+ * runs the same query as the loader of a cold {@link UserCache} in virtual
+ * mode and checks that no virtual thread gets pinned to its carrier.
+ * Opt-in: ./mvnw test -Dgroups=load -DexcludedGroups=none
+ */
+@Tag("load")
+class GrpcExecutionModeLoadTests {
+
+    private static final Logger log = LoggerFactory.getLogger(GrpcExecutionModeLoadTests.class);
+
+    private static final int POOL_SIZE = 20;
+    private static final int CALLS = 4000;
+    private static final long QUERY_MILLIS = 10;
+
+    private final Semaphore connectionPool = new Semaphore(POOL_SIZE);
+
+    @Test
+    void virtualThreadsKeepInFlightCallsAtThePoolSize() throws Exception {
+        // each mode is run once to warm up; virtual first, as idle threads left behind
+        // by the default cached pool would otherwise inflate its thread peak
+        run(true, this::query);
+        Result virtual = run(true, this::query);
+        run(false, this::query);
+        Result platform = run(false, this::query);
+
+        log.info("Load test results:\n{}\n{}\n{}",
+                String.format("%-10s %10s %10s %14s %16s", "mode", "p50 (ms)", "p99 (ms)", "max in-flight", "peak threads"),
+                platform.format("platform"), virtual.format("virtual"));
+
+        assertThat(virtual.maxInFlight).isLessThanOrEqualTo(POOL_SIZE);
+        assertThat(virtual.peakThreads).isLessThan(platform.peakThreads);
+    }
+
+    @Test
+    void coldCacheLoadsDoNotPinVirtualThreads() throws Exception {
+        UserCache cache = new UserCache(new UserServiceProperties(), new SimpleMeterRegistry());
+        Path events = Files.createDirectories(Path.of("target")).resolve("cold-cache-pinning.jfr");
+
+        Result cold;
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+            recording.start();
+            // every call but the warm-up misses, so each runs its query inside the cache load
+            cold = run(true, id -> cache.getById(id, this::load));
+            recording.stop();
+            recording.dump(events);
+        }
+        long pinned = RecordingFile.readAllEvents(events).stream()
+                .filter(event -> event.getEventType().getName().equals("jdk.VirtualThreadPinned"))
+                .count();
+
+        log.info("Cold cache load test results:\n{}\n{}\npinned virtual threads: {}",
+                String.format("%-10s %10s %10s %14s %16s", "mode", "p50 (ms)", "p99 (ms)", "max in-flight", "peak threads"),
+                cold.format("virtual"), pinned);
+
+        assertThat(pinned).isZero();
+        assertThat(cold.maxInFlight).isLessThanOrEqualTo(POOL_SIZE);
+    }
+
+    /**
+     * Holds one of the pool's connections for the duration of a query.
+     */
+    private void query(long id) throws InterruptedException {
+        connectionPool.acquire();
+        try {
+            Thread.sleep(QUERY_MILLIS);
+        } finally {
+            connectionPool.release();
+        }
+    }
+
+    private inpt.aseds.userservice.domain.model.User load(Long id) {
+        try {
+            query(id);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        inpt.aseds.userservice.domain.model.User user = new inpt.aseds.userservice.domain.model.User();
+        user.setId(id);
+        user.setUsername("user_" + id);
+        return user;
+    }
+
+    private Result run(boolean virtualThreads, Query query) throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        UserServiceGrpc.UserServiceImplBase service = new UserServiceGrpc.UserServiceImplBase() {
+            @Override
+            public void getUser(GetUserRequest request, StreamObserver<User> responseObserver) {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    query.run(request.getId());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+                responseObserver.onNext(User.newBuilder().setId(request.getId()).build());
+                responseObserver.onCompleted();
+            }
+        };
+
+        NettyServerBuilder serverBuilder = NettyServerBuilder.forPort(0);
+        ExecutorService virtualExecutor = null;
+        if (virtualThreads) {
+            virtualExecutor = Executors.newVirtualThreadPerTaskExecutor();
+            serverBuilder.executor(virtualExecutor)
+                    .addService(ServerInterceptors.intercept(service,
+                            new ConcurrencyLimitInterceptor(POOL_SIZE, Duration.ofSeconds(60), new SimpleMeterRegistry())));
+        } else {
+            serverBuilder.addService(service);
+        }
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Server server = serverBuilder.build().start();
+        ManagedChannel channel = NettyChannelBuilder.forAddress("localhost", server.getPort()).usePlaintext().build();
+        try {
+            UserServiceGrpc.UserServiceStub stub = UserServiceGrpc.newStub(channel);
+            stub.withDeadlineAfter(5, TimeUnit.SECONDS).getUser(GetUserRequest.newBuilder().setId(1).build(),
+                    new LatencyObserver(new long[1], 0, System.nanoTime(), new CountDownLatch(1)));
+            threads.resetPeakThreadCount();
+
+            long[] latencies = new long[CALLS];
+            CountDownLatch done = new CountDownLatch(CALLS);
+            for (int i = 0; i < CALLS; i++) {
+                stub.getUser(GetUserRequest.newBuilder().setId(i + 1).build(),
+                        new LatencyObserver(latencies, i, System.nanoTime(), done));
+            }
+            assertThat(done.await(5, TimeUnit.MINUTES)).isTrue();
+
+            Arrays.sort(latencies);
+            return new Result(latencies[CALLS / 2] / 1e6, latencies[(int) (CALLS * 0.99)] / 1e6,
+                    maxInFlight.get(), threads.getPeakThreadCount());
+        } finally {
+            channel.shutdownNow();
+            server.shutdownNow().awaitTermination(10, TimeUnit.SECONDS);
+            if (virtualExecutor != null) {
+                virtualExecutor.shutdownNow();
+            }
+        }
+    }
+
+    private interface Query {
+        void run(long id) throws InterruptedException;
+    }
+
+    private record Result(double p50Millis, double p99Millis, int maxInFlight, int peakThreads) {
+
+        String format(String mode) {
+            return String.format("%-10s %10.1f %10.1f %14d %16d", mode, p50Millis, p99Millis, maxInFlight, peakThreads);
+        }
+    }
+
+    private record LatencyObserver(long[] latencies, int index, long startNanos, CountDownLatch done)
+            implements StreamObserver<User> {
+
+        @Override
+        public void onNext(User value) {
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            latencies[index] = System.nanoTime() - startNanos;
+            done.countDown();
+        }
+
+        @Override
+        public void onCompleted() {
+            latencies[index] = System.nanoTime() - startNanos;
+            done.countDown();
+        }
+    }
+}
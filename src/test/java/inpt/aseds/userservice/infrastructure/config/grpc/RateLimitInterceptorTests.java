@@ -0,0 +1,170 @@
+package inpt.aseds.userservice.infrastructure.config.grpc;
+
+import inpt.aseds.userservice.infrastructure.grpc.UserServiceGrpc;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitInterceptorTests {
+
+    private static final RateLimitInterceptor.Limit ONE_PER_SECOND_BURST_3 = new RateLimitInterceptor.Limit(1, 3);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CallerKeyInterceptor callerKey;
+
+    @AfterEach
+    void clearCaller() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void admitsABurstThenOneCallPerInterval() {
+        RateLimitInterceptor interceptor = interceptor(Map.of(), Set.of(), Set.of());
+        callAs("alice");
+
+        assertThat(admitted(interceptor, 3)).isEqualTo(3);
+        assertThat(admitted(interceptor)).isFalse();
+
+        advance(Duration.ofMillis(999));
+        assertThat(admitted(interceptor)).isFalse();
+        advance(Duration.ofMillis(1));
+        assertThat(admitted(interceptor)).isTrue();
+        assertThat(admitted(interceptor)).isFalse();
+
+        assertThat(meterRegistry.get("grpc.server.calls.rejected").tag("reason", "rate-limit")
+                .counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void refillsNoFurtherThanTheBurst() {
+        RateLimitInterceptor interceptor = interceptor(Map.of(), Set.of(), Set.of());
+        callAs("alice");
+        admitted(interceptor, 3);
+
+        advance(Duration.ofSeconds(2));
+        assertThat(admitted(interceptor, 3)).isEqualTo(2);
+
+        advance(Duration.ofMinutes(1));
+        assertThat(admitted(interceptor, 4)).isEqualTo(3);
+    }
+
+    @Test
+    void limitsEachClientOnEachMethodSeparately() {
+        RateLimitInterceptor interceptor = interceptor(Map.of(), Set.of(), Set.of());
+        callAs("alice");
+        admitted(interceptor, 3);
+
+        assertThat(admitted(interceptor, UserServiceGrpc.getGetUserByUsernameMethod(), new Metadata())).isTrue();
+        callAs("bob");
+        assertThat(admitted(interceptor)).isTrue();
+    }
+
+    @Test
+    void appliesMethodOverridesAndLeavesZeroRateMethodsUnlimited() {
+        RateLimitInterceptor interceptor = interceptor(Map.of(
+                "GetUser", new RateLimitInterceptor.Limit(0, 0),
+                "GetUserByUsername", new RateLimitInterceptor.Limit(1, 1)), Set.of(), Set.of());
+        callAs("alice");
+
+        assertThat(admitted(interceptor, 100)).isEqualTo(100);
+        MethodDescriptor<?, ?> byUsername = UserServiceGrpc.getGetUserByUsernameMethod();
+        assertThat(admitted(interceptor, byUsername, new Metadata())).isTrue();
+        assertThat(admitted(interceptor, byUsername, new Metadata())).isFalse();
+    }
+
+    @Test
+    void limitsATrustedForwarderPerForwardedUser() {
+        RateLimitInterceptor interceptor = interceptor(Map.of(), Set.of("gateway"), Set.of());
+        callAs("gateway");
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(admitted(interceptor, UserServiceGrpc.getGetUserMethod(), forwardedFor("alice"))).isTrue();
+        }
+        assertThat(admitted(interceptor, UserServiceGrpc.getGetUserMethod(), forwardedFor("alice"))).isFalse();
+        assertThat(admitted(interceptor, UserServiceGrpc.getGetUserMethod(), forwardedFor("bob"))).isTrue();
+        // The gateway's own calls keep a bucket of their own
+        assertThat(admitted(interceptor)).isTrue();
+    }
+
+    @Test
+    void ignoresTheForwardedUserOfOtherClients() {
+        RateLimitInterceptor interceptor = interceptor(Map.of(), Set.of("gateway"), Set.of());
+        callAs("mallory");
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(admitted(interceptor, UserServiceGrpc.getGetUserMethod(), forwardedFor("user-" + i))).isTrue();
+        }
+        assertThat(admitted(interceptor, UserServiceGrpc.getGetUserMethod(), forwardedFor("user-3"))).isFalse();
+    }
+
+    @Test
+    void doesNotLimitExemptClients() {
+        RateLimitInterceptor interceptor = interceptor(Map.of(), Set.of(), Set.of("batch-job"));
+        callAs("batch-job");
+
+        assertThat(admitted(interceptor, 100)).isEqualTo(100);
+    }
+
+    private RateLimitInterceptor interceptor(Map<String, RateLimitInterceptor.Limit> methodLimits,
+                                             Set<String> trustedForwarders, Set<String> exemptClients) {
+        callerKey = new CallerKeyInterceptor("x-forwarded-user", trustedForwarders);
+        return new RateLimitInterceptor(ONE_PER_SECOND_BURST_3, methodLimits, 1000, exemptClients, clock::get,
+                meterRegistry);
+    }
+
+    private void callAs(String client) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(client, null));
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+
+    private int admitted(RateLimitInterceptor interceptor, int calls) {
+        int admitted = 0;
+        for (int i = 0; i < calls; i++) {
+            if (admitted(interceptor)) {
+                admitted++;
+            }
+        }
+        return admitted;
+    }
+
+    private boolean admitted(RateLimitInterceptor interceptor) {
+        return admitted(interceptor, UserServiceGrpc.getGetUserMethod(), new Metadata());
+    }
+
+    private <ReqT, RespT> boolean admitted(RateLimitInterceptor interceptor, MethodDescriptor<ReqT, RespT> method,
+                                           Metadata headers) {
+        TestServerCall<ReqT, RespT> call = new TestServerCall<>(method);
+        // Run behind the caller key, as on the server
+        callerKey.interceptCall(call, headers, (keyed, keyedHeaders) -> interceptor.interceptCall(keyed, keyedHeaders,
+                (started, startedHeaders) -> new ServerCall.Listener<>() {
+                }));
+        Status status = call.status();
+        if (status != null) {
+            assertThat(status.getCode()).isEqualTo(Status.Code.RESOURCE_EXHAUSTED);
+        }
+        return status == null;
+    }
+
+    private static Metadata forwardedFor(String user) {
+        Metadata headers = new Metadata();
+        headers.put(Metadata.Key.of("x-forwarded-user", Metadata.ASCII_STRING_MARSHALLER), user);
+        return headers;
+    }
+}
@@ -0,0 +1,54 @@
+package inpt.aseds.userservice.infrastructure.config.grpc;
+
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.Status;
+
+/**
+ * Server call without a transport that records the status it was closed
+ * with, for driving interceptors directly.
+ */
+public class TestServerCall<ReqT, RespT> extends ServerCall<ReqT, RespT> {
+
+    private final MethodDescriptor<ReqT, RespT> method;
+    private Status status;
+
+    public TestServerCall(MethodDescriptor<ReqT, RespT> method) {
+        this.method = method;
+    }
+
+    /**
+     * Returns the status the call was closed with, or null while it is open.
+     */
+    public Status status() {
+        return status;
+    }
+
+    @Override
+    public void request(int numMessages) {
+    }
+
+    @Override
+    public void sendHeaders(Metadata headers) {
+    }
+
+    @Override
+    public void sendMessage(RespT message) {
+    }
+
+    @Override
+    public void close(Status status, Metadata trailers) {
+        this.status = status;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return false;
+    }
+
+    @Override
+    public MethodDescriptor<ReqT, RespT> getMethodDescriptor() {
+        return method;
+    }
+}
@@ -0,0 +1,124 @@
+package inpt.aseds.userservice.infrastructure.messaging;
+
+import inpt.aseds.userservice.application.config.UserServiceProperties;
+import inpt.aseds.userservice.domain.model.OutboxEvent;
+import inpt.aseds.userservice.domain.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@EmbeddedKafka(partitions = 1, topics = "user-events")
+class OutboxRelayTests {
+
+    private final OutboxEventRepository repository = mock(OutboxEventRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final UserServiceProperties properties = new UserServiceProperties();
+
+    private DefaultKafkaProducerFactory<String, String> producerFactory;
+    private Consumer<String, String> consumer;
+
+    @BeforeEach
+    void setUp(EmbeddedKafkaBroker broker) {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(repository.tryLockRelay()).thenReturn(true);
+
+        Map<String, Object> producerProps = KafkaTestUtils.producerProps(broker);
+        producerProps.put("enable.idempotence", true);
+        producerFactory = new DefaultKafkaProducerFactory<>(producerProps, new StringSerializer(), new StringSerializer());
+
+        Map<String, Object> consumerProps = KafkaTestUtils.consumerProps("outbox-relay-test", "false", broker);
+        consumer = new DefaultKafkaConsumerFactory<>(consumerProps, new StringDeserializer(), new StringDeserializer())
+                .createConsumer();
+        broker.consumeFromAnEmbeddedTopic(consumer, "user-events");
+    }
+
+    @AfterEach
+    void tearDown() {
+        consumer.close();
+        producerFactory.destroy();
+    }
+
+    @Test
+    void publishesBatchKeyedByUserIdAndDeletesIt() {
+        List<OutboxEvent> batch = List.of(event(1L, 42L), event(2L, 7L), event(3L, 42L));
+        doReturn(batch).doReturn(List.of()).when(repository).lockNextBatch(anyInt());
+
+        OutboxRelay relay = new OutboxRelay(repository, new KafkaTemplate<>(producerFactory),
+                transactionManager, properties, new SimpleMeterRegistry());
+        relay.relay();
+
+        ConsumerRecords<String, String> records = KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(10), 3);
+        List<String> keys = new ArrayList<>();
+        List<String> payloads = new ArrayList<>();
+        for (ConsumerRecord<String, String> record : records) {
+            keys.add(record.key());
+            payloads.add(record.value());
+        }
+        assertThat(keys).containsExactly("42", "7", "42");
+        assertThat(payloads).containsExactly("{\"event\":1}", "{\"event\":2}", "{\"event\":3}");
+        verify(repository).deleteAllInBatch(batch);
+    }
+
+    @Test
+    void keepsEventsWhenPublishingFails() {
+        properties.getOutbox().setTopic("");
+        List<OutboxEvent> batch = List.of(event(1L, 42L));
+        when(repository.lockNextBatch(anyInt())).thenReturn(batch);
+
+        OutboxRelay relay = new OutboxRelay(repository, new KafkaTemplate<>(producerFactory),
+                transactionManager, properties, new SimpleMeterRegistry());
+        relay.relay();
+
+        verify(repository, never()).deleteAllInBatch(any());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void leavesTheOutboxToTheInstanceHoldingTheRelayLock() {
+        when(repository.tryLockRelay()).thenReturn(false);
+
+        OutboxRelay relay = new OutboxRelay(repository, new KafkaTemplate<>(producerFactory),
+                transactionManager, properties, new SimpleMeterRegistry());
+        relay.relay();
+
+        verify(repository, never()).lockNextBatch(anyInt());
+        verify(repository, never()).deleteAllInBatch(any());
+    }
+
+    private static OutboxEvent event(Long id, Long userId) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setUserId(userId);
+        event.setEventType("USER_UPDATED");
+        event.setPayload("{\"event\":" + id + "}");
+        return event;
+    }
+}